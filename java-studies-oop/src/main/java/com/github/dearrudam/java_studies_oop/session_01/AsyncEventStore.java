@@ -0,0 +1,76 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Asynchronous facade over an {@link EventStore}, meant for callers running on virtual threads.
+ * <p>
+ * {@link #storeAsync(Event)} hands the event to a dedicated writer thread through a lock-free
+ * {@link MpscRingBuffer} and returns at once: callers never take the store lock nor wait on the
+ * disk, so no carrier thread is held by a blocking write. The writer stores each drained batch
+ * with {@link EventStore#storeAll(java.util.Collection)}, so durable logs commit the batch at once,
+ * and only then completes the futures of its events, on a virtual thread so that dependent stages
+ * never delay the writer. When the buffer is full, callers spin for a while and then yield.
+ */
+public final class AsyncEventStore implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private record Pending(Event event, CompletableFuture<Long> sequence) {
+    }
+
+    private final EventStore eventStore;
+    private final ExecutorService completions = Executors.newVirtualThreadPerTaskExecutor();
+    private final BatchWriter<Pending> writer;
+
+    public AsyncEventStore(EventStore eventStore) {
+        this(eventStore, DEFAULT_CAPACITY);
+    }
+
+    public AsyncEventStore(EventStore eventStore, int capacity) {
+        this.eventStore = Objects.requireNonNull(eventStore, "event store is required");
+        this.writer = new BatchWriter<>("async-event-store-writer", capacity, batch -> store(List.copyOf(batch)));
+    }
+
+    /**
+     * @return a future completed with the sequence of the event once the batch holding it is
+     * stored (and durable, for durable logs), or completed exceptionally if storing it failed or
+     * the store is closed
+     */
+    public CompletableFuture<Long> storeAsync(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        var pending = new Pending(event, new CompletableFuture<>());
+        if (!writer.offer(pending)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("async event store is closed"));
+        }
+        return pending.sequence();
+    }
+
+    /**
+     * Stores the events already handed over, completes their futures and stops the writer. The
+     * underlying {@link EventStore} is left open.
+     */
+    @Override
+    public void close() {
+        writer.close();
+        completions.close();
+    }
+
+    private void store(List<Pending> batch) {
+        try {
+            long first = eventStore.storeAll(batch.stream().map(Pending::event).toList());
+            completions.execute(() -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).sequence().complete(first + i);
+                }
+            });
+        } catch (RuntimeException e) {
+            completions.execute(() -> batch.forEach(pending -> pending.sequence().completeExceptionally(e)));
+        }
+    }
+
+}
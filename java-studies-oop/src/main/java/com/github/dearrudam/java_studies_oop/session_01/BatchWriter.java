@@ -0,0 +1,133 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Single writer thread draining a lock-free {@link MpscRingBuffer} in batches, shared by the
+ * {@link EventIngestor} and the {@link AsyncEventStore}.
+ * <p>
+ * Producers hand items over with {@link #offer(Object)}, spinning for a while and then yielding
+ * when the buffer is full. Offers in progress are counted, so {@link #close()} waits for them
+ * before stopping the writer: an item is either rejected or handled, never left in the buffer. A
+ * handler failure stops the writer and is reported by {@link #failure()}.
+ *
+ * @param <T> the type of the handed over items
+ */
+final class BatchWriter<T> implements AutoCloseable {
+
+    private static final int DRAIN_LIMIT = 1024;
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final MpscRingBuffer<T> buffer;
+    private final Consumer<List<T>> handler;
+    private final AtomicInteger offering = new AtomicInteger();
+    private final Thread writer;
+    private volatile boolean accepting = true;
+    private volatile boolean stopping;
+    private volatile long handled;
+    private volatile RuntimeException failure;
+
+    /**
+     * @param handler receives each drained batch, in the order of the buffer; the list is reused
+     *                once the handler returns
+     */
+    BatchWriter(String threadName, int capacity, Consumer<List<T>> handler) {
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.handler = handler;
+        this.writer = Thread.ofPlatform()
+                .name(threadName)
+                .daemon()
+                .start(this::drainLoop);
+    }
+
+    /**
+     * @return {@code false} when the item was rejected because the writer is closed or failed
+     */
+    boolean offer(T item) {
+        offering.incrementAndGet();
+        try {
+            // checked after announcing the offer, so close() either sees it or is seen by it
+            if (!accepting || failure != null) {
+                return false;
+            }
+            for (int attempt = 0; !buffer.offer(item); attempt++) {
+                if (failure != null) {
+                    return false;
+                }
+                if (attempt < SPIN_ATTEMPTS) {
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return true;
+        } finally {
+            offering.decrementAndGet();
+        }
+    }
+
+    /**
+     * @return the number of items accepted so far
+     */
+    long offered() {
+        return buffer.offered();
+    }
+
+    /**
+     * @return the number of items handed to the handler so far
+     */
+    long handled() {
+        return handled;
+    }
+
+    RuntimeException failure() {
+        return failure;
+    }
+
+    boolean isAccepting() {
+        return accepting;
+    }
+
+    /**
+     * Rejects new items, lets the offers in progress finish, hands every accepted item to the
+     * handler and stops the writer.
+     */
+    @Override
+    public void close() {
+        accepting = false;
+        while (offering.get() > 0) {
+            Thread.yield();
+        }
+        stopping = true;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(DRAIN_LIMIT);
+        try {
+            while (!stopping || buffer.drained() < buffer.offered()) {
+                if (buffer.drain(batch::add, DRAIN_LIMIT) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                handler.accept(batch);
+                handled += batch.size();
+                batch.clear();
+            }
+        } catch (RuntimeException e) {
+            failure = e;
+        }
+    }
+
+}
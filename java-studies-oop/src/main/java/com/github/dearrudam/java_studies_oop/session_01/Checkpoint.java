@@ -0,0 +1,35 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Objects;
+
+/**
+ * State of a projection together with the sequence of the last event folded into it.
+ *
+ * @param sequence the sequence of the last applied event, {@code -1} when none was applied
+ * @param state    the projected state
+ * @param <S>      the type of the projected state
+ */
+public record Checkpoint<S>(long sequence, S state) {
+
+    public Checkpoint {
+        if (sequence < -1) {
+            throw new IllegalArgumentException("sequence must not be less than -1");
+        }
+        Objects.requireNonNull(state, "state is required");
+    }
+
+    /**
+     * @return a checkpoint holding the given state before any event was applied
+     */
+    public static <S> Checkpoint<S> initial(S state) {
+        return new Checkpoint<>(-1, state);
+    }
+
+    /**
+     * @return the sequence of the first event still to apply
+     */
+    public long nextSequence() {
+        return sequence + 1;
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Keeps the last {@link Checkpoint} of a projection, so a restarted projection resumes from it
+ * instead of replaying every stored event.
+ *
+ * @param <S> the type of the projected state
+ */
+public interface CheckpointStore<S> {
+
+    Optional<Checkpoint<S>> load();
+
+    void save(Checkpoint<S> checkpoint);
+
+    /**
+     * @return a store keeping the checkpoint on the heap, for projections living as long as their
+     * event store
+     */
+    static <S> CheckpointStore<S> inMemory() {
+        AtomicReference<Checkpoint<S>> last = new AtomicReference<>();
+        return new CheckpointStore<>() {
+
+            @Override
+            public Optional<Checkpoint<S>> load() {
+                return Optional.ofNullable(last.get());
+            }
+
+            @Override
+            public void save(Checkpoint<S> checkpoint) {
+                last.set(Objects.requireNonNull(checkpoint, "checkpoint is required"));
+            }
+        };
+    }
+
+    /**
+     * @return a store keeping the checkpoint in the given file, as the sequence on the first line
+     * followed by the state written by the encoder. The new checkpoint is forced to disk and then
+     * atomically renamed over the previous one, so a crash while saving leaves either of them.
+     */
+    static <S> CheckpointStore<S> file(Path file, Function<? super S, String> encoder, Function<String, ? extends S> decoder) {
+        Objects.requireNonNull(file, "file is required");
+        Objects.requireNonNull(encoder, "encoder is required");
+        Objects.requireNonNull(decoder, "decoder is required");
+        return new CheckpointStore<>() {
+
+            @Override
+            public Optional<Checkpoint<S>> load() {
+                if (!Files.exists(file)) {
+                    return Optional.empty();
+                }
+                try {
+                    String content = Files.readString(file, StandardCharsets.UTF_8);
+                    int lineEnd = content.indexOf('\n');
+                    if (lineEnd < 0) {
+                        throw new IllegalStateException("invalid checkpoint file " + file);
+                    }
+                    long sequence = Long.parseLong(content.substring(0, lineEnd));
+                    return Optional.of(new Checkpoint<>(sequence, decoder.apply(content.substring(lineEnd + 1))));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void save(Checkpoint<S> checkpoint) {
+                Objects.requireNonNull(checkpoint, "checkpoint is required");
+                Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+                byte[] content = (checkpoint.sequence() + "\n" + encoder.apply(checkpoint.state())).getBytes(StandardCharsets.UTF_8);
+                try {
+                    // the content must be on disk before the rename makes it the checkpoint
+                    try (FileChannel channel = FileChannel.open(temporary,
+                            StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                        ByteBuffer buffer = ByteBuffer.wrap(content);
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                        channel.force(true);
+                    }
+                    Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    forceDirectory(file.toAbsolutePath().getParent());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Makes a rename in the given directory durable, on the platforms where directories can be
+     * opened and forced.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (UnsupportedOperationException | AccessDeniedException e) {
+            // directories cannot be opened or forced on this platform (e.g. Windows)
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Scan engine evaluating time-range and type predicates over the columns of a
+ * {@link ColumnarEventLog}, producing a selection bitmap where bit {@code i} is set when the event
+ * with sequence {@code i} matches.
+ * <p>
+ * {@link #vectorized()} evaluates the predicates with SIMD instructions through the
+ * {@code jdk.incubator.vector} module; {@link #scalar()} is the plain loop used as fallback when
+ * that module is not available ({@code --add-modules jdk.incubator.vector}) or the vectorized
+ * engine was not compiled (it is only built by the {@code vector-api} Maven profile), so it is
+ * looked up by name.
+ */
+public interface ColumnScan {
+
+    static ColumnScan scalar() {
+        return ScalarColumnScan.INSTANCE;
+    }
+
+    static ColumnScan vectorized() {
+        if (!isVectorApiAvailable()) {
+            throw new UnsupportedOperationException("jdk.incubator.vector module is not available");
+        }
+        try {
+            return (ColumnScan) Class.forName(ColumnScan.class.getPackageName() + ".VectorColumnScan")
+                    .getDeclaredField("INSTANCE")
+                    .get(null);
+        } catch (ClassNotFoundException e) {
+            throw new UnsupportedOperationException("vectorized scan was not compiled, see the vector-api profile", e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the vectorized engine when the Vector API is available, the scalar one otherwise
+     */
+    static ColumnScan best() {
+        try {
+            return vectorized();
+        } catch (UnsupportedOperationException e) {
+            return scalar();
+        }
+    }
+
+    private static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    /**
+     * @return the events that occurred from {@code from} (inclusive) to {@code to} (exclusive)
+     */
+    default BitSet select(ColumnarEventLog log, Instant from, Instant to) {
+        return select(log, from, to, null);
+    }
+
+    /**
+     * @return the events of the given concrete type, or of any type when {@code type} is
+     * {@code null}, that occurred from {@code from} (inclusive) to {@code to} (exclusive)
+     */
+    default BitSet select(ColumnarEventLog log, Instant from, Instant to, Class<? extends Event> type) {
+        Objects.requireNonNull(log, "log is required");
+        Objects.requireNonNull(from, "from is required");
+        Objects.requireNonNull(to, "to is required");
+        int size = log.size();
+        ColumnarEventLog.Columns columns = log.columns();
+        long[] words = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        selectTime(columns.epochSeconds(), columns.nanos(), size,
+                from.getEpochSecond(), from.getNano(), to.getEpochSecond(), to.getNano(), words);
+        if (type != null) {
+            selectType(columns.typeIds(), size, EventCodecs.codecOf(type).typeId(), words);
+        }
+        return BitSet.valueOf(words);
+    }
+
+    /**
+     * Sets the bits of the events inside the time range.
+     */
+    void selectTime(long[] epochSeconds, int[] nanos, int size,
+                    long fromSecond, int fromNano, long toSecond, int toNano,
+                    long[] words);
+
+    /**
+     * Clears the bits of the events of other types.
+     */
+    void selectType(byte[] typeIds, int size, byte typeId, long[] words);
+
+}
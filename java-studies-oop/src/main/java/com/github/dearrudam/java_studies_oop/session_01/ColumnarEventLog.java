@@ -0,0 +1,133 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+/**
+ * {@link EventLog} storing events column by column: the occurred instants as parallel
+ * {@code long[]} epoch seconds and {@code int[]} nanos arrays, the {@link EventCodecs} type ids
+ * in a {@code byte[]} and the payloads in a separate column.
+ * <p>
+ * Time and type filters only walk the primitive columns, sequentially, without touching any event
+ * object, through the {@link ColumnScan} given at construction (vectorized when available). Events
+ * are rebuilt by their {@link EventCodec} when read.
+ */
+public class ColumnarEventLog implements EventLog {
+
+    /**
+     * Columns shared with the scans; replaced as a whole when they grow.
+     */
+    record Columns(long[] epochSeconds, int[] nanos, byte[] typeIds, String[] payloads) {
+
+        static Columns withCapacity(int capacity) {
+            return new Columns(new long[capacity], new int[capacity], new byte[capacity], new String[capacity]);
+        }
+
+        Columns grow() {
+            int capacity = epochSeconds.length * 2;
+            return new Columns(
+                    Arrays.copyOf(epochSeconds, capacity),
+                    Arrays.copyOf(nanos, capacity),
+                    Arrays.copyOf(typeIds, capacity),
+                    Arrays.copyOf(payloads, capacity));
+        }
+    }
+
+    private final ColumnScan scan;
+    private volatile Columns columns = Columns.withCapacity(1024);
+    private volatile int size;
+
+    public ColumnarEventLog() {
+        this(ColumnScan.best());
+    }
+
+    public ColumnarEventLog(ColumnScan scan) {
+        this.scan = Objects.requireNonNull(scan, "scan is required");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long append(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        EventCodec<Event> codec = (EventCodec<Event>) EventCodecs.codecOf(event.getClass());
+        int sequence = size;
+        if (sequence == Integer.MAX_VALUE) {
+            throw new IllegalStateException("columnar log is full");
+        }
+        Columns current = columns;
+        if (sequence == current.epochSeconds().length) {
+            current = current.grow();
+            columns = current;
+        }
+        Instant occurredOn = event.occurredOn();
+        current.epochSeconds()[sequence] = occurredOn.getEpochSecond();
+        current.nanos()[sequence] = occurredOn.getNano();
+        current.typeIds()[sequence] = codec.typeId();
+        current.payloads()[sequence] = codec.payload(event);
+        size = sequence + 1;
+        return sequence;
+    }
+
+    @Override
+    public Event read(long sequence) {
+        int count = size;
+        if (sequence < 0 || sequence >= count) {
+            throw new IndexOutOfBoundsException("no event stored with sequence " + sequence);
+        }
+        Columns current = columns;
+        int index = (int) sequence;
+        return EventCodecs.codecOf(current.typeIds()[index])
+                .create(current.payloads()[index],
+                        Instant.ofEpochSecond(current.epochSeconds()[index], current.nanos()[index]));
+    }
+
+    @Override
+    public long nextSequence() {
+        return size;
+    }
+
+    /**
+     * @return the sequences of the events that occurred from {@code from} (inclusive) to
+     * {@code to} (exclusive), in storing order
+     */
+    public LongStream sequencesBetween(Instant from, Instant to) {
+        return select(from, to).stream().asLongStream();
+    }
+
+    /**
+     * @return the sequences of the events of the given concrete type that occurred from
+     * {@code from} (inclusive) to {@code to} (exclusive), in storing order
+     */
+    public LongStream sequencesBetween(Instant from, Instant to, Class<? extends Event> type) {
+        return select(from, to, type).stream().asLongStream();
+    }
+
+    /**
+     * @return a selection bitmap of the events that occurred from {@code from} (inclusive) to
+     * {@code to} (exclusive), indexed by sequence
+     */
+    public BitSet select(Instant from, Instant to) {
+        return scan.select(this, from, to);
+    }
+
+    /**
+     * @return a selection bitmap of the events of the given concrete type that occurred from
+     * {@code from} (inclusive) to {@code to} (exclusive), indexed by sequence
+     */
+    public BitSet select(Instant from, Instant to, Class<? extends Event> type) {
+        Objects.requireNonNull(type, "type is required");
+        return scan.select(this, from, to, type);
+    }
+
+    int size() {
+        return size;
+    }
+
+    Columns columns() {
+        return columns;
+    }
+
+}
@@ -0,0 +1,387 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+/**
+ * Radix tree over {@link ProcessEvent#command()}, to be
+ * {@link EventStore#attach(EventIndex) attached} to an {@link EventStore}, answering exact and
+ * prefix lookups without scanning the stored events.
+ * <p>
+ * Every edge is labelled with a whole run of characters, so commands sharing a prefix share its
+ * nodes and a chain of single-child nodes never appears. Each node holding a complete command keeps
+ * the sequences of its events in a {@link LongPostings}. The tree is changed by the single writer
+ * of the store, replacing child arrays and split nodes instead of modifying them, so lookups walk
+ * it without locking.
+ */
+public final class CommandTrieIndex implements EventIndex {
+
+    /**
+     * Estimated heap used by the index.
+     *
+     * @param commands the number of distinct indexed commands
+     * @param nodes    the number of nodes of the tree
+     * @param bytes    the estimated bytes used by the nodes, their labels and postings
+     */
+    public record MemoryUsage(int commands, int nodes, long bytes) {
+
+        /**
+         * @return the average number of bytes used per distinct indexed command
+         */
+        public double bytesPerCommand() {
+            return commands == 0 ? 0 : (double) bytes / commands;
+        }
+    }
+
+    /**
+     * Run of consecutive sequences.
+     *
+     * @param from the first sequence of the run
+     * @param to   the sequence following the last one of the run (exclusive)
+     */
+    public record SequenceRange(long from, long to) {
+
+        public long size() {
+            return to - from;
+        }
+    }
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node("");
+    private volatile long firstSequence;
+
+    @Override
+    public void index(long sequence, Event event) {
+        if (event instanceof ProcessEvent processEvent) {
+            insert(processEvent.command(), sequence);
+        }
+    }
+
+    @Override
+    public void evictBefore(long sequence) {
+        firstSequence = sequence;
+        compact(root, sequence);
+    }
+
+    /**
+     * @return the sequences of the events with exactly the given command, in storing order
+     */
+    public LongStream sequencesOf(String command) {
+        Objects.requireNonNull(command, "command is required");
+        Node node = root;
+        int matched = 0;
+        while (matched < command.length()) {
+            Node child = node.childStartingWith(command.charAt(matched));
+            if (child == null || !command.startsWith(child.label, matched)) {
+                return LongStream.empty();
+            }
+            node = child;
+            matched += child.label.length();
+        }
+        LongPostings sequences = node.sequences;
+        return sequences == null ? LongStream.empty() : retained(sequences.stream());
+    }
+
+    /**
+     * @return the sequences of the events whose command starts with the given prefix, in storing
+     * order
+     */
+    public LongStream sequencesStartingWith(String prefix) {
+        Objects.requireNonNull(prefix, "prefix is required");
+        Node node = root;
+        int matched = 0;
+        while (matched < prefix.length()) {
+            Node child = node.childStartingWith(prefix.charAt(matched));
+            if (child == null) {
+                return LongStream.empty();
+            }
+            int common = commonPrefixLength(child.label, prefix, matched);
+            if (matched + common < prefix.length() && common < child.label.length()) {
+                return LongStream.empty();
+            }
+            node = child;
+            matched += common;
+        }
+        List<LongPostings> postings = new ArrayList<>();
+        collect(node, postings);
+        return postings.isEmpty()
+                ? LongStream.empty()
+                : retained(LongPostings.merge(postings.toArray(LongPostings[]::new)));
+    }
+
+    /**
+     * @return the sequences of the events with exactly the given command, as runs of consecutive
+     * sequences in storing order
+     */
+    public List<SequenceRange> rangesOf(String command) {
+        return ranges(sequencesOf(command));
+    }
+
+    /**
+     * @return the sequences of the events whose command starts with the given prefix, as runs of
+     * consecutive sequences in storing order
+     */
+    public List<SequenceRange> rangesStartingWith(String prefix) {
+        return ranges(sequencesStartingWith(prefix));
+    }
+
+    public MemoryUsage memoryUsage() {
+        long[] totals = new long[3];
+        measure(root, totals);
+        return new MemoryUsage((int) totals[0], (int) totals[1], totals[2]);
+    }
+
+    /**
+     * @return the estimated bytes used by each indexed command, in command order: the node ending
+     * with the command and its postings, plus an even share of every node above it among the
+     * commands below that node, so the values add up to {@link #memoryUsage()}, give or take
+     * rounding
+     */
+    public Map<String, Long> memoryUsageByCommand() {
+        Map<String, Long> usage = new TreeMap<>();
+        attribute(root, "", 0, usage);
+        return usage;
+    }
+
+    /**
+     * @return the estimated bytes used by the given command, as in {@link #memoryUsageByCommand()},
+     * or {@code 0} when it is not indexed; only the nodes on the path of the command are visited
+     */
+    public long memoryUsage(String command) {
+        Objects.requireNonNull(command, "command is required");
+        Node node = root;
+        double share = (double) nodeBytes(root, root.children) / Math.max(root.commands, 1);
+        int matched = 0;
+        while (matched < command.length()) {
+            Node child = node.childStartingWith(command.charAt(matched));
+            if (child == null || !command.startsWith(child.label, matched)) {
+                return 0;
+            }
+            node = child;
+            matched += child.label.length();
+            share += (double) nodeBytes(node, node.children) / Math.max(node.commands, 1);
+        }
+        LongPostings sequences = node.sequences;
+        return sequences == null ? 0 : Math.round(share + sequences.sizeInBytes());
+    }
+
+    private static List<SequenceRange> ranges(LongStream sequences) {
+        List<SequenceRange> ranges = new ArrayList<>();
+        long[] run = {-1, -1};
+        sequences.forEachOrdered(sequence -> {
+            if (sequence != run[1]) {
+                if (run[0] >= 0) {
+                    ranges.add(new SequenceRange(run[0], run[1]));
+                }
+                run[0] = sequence;
+            }
+            run[1] = sequence + 1;
+        });
+        if (run[0] >= 0) {
+            ranges.add(new SequenceRange(run[0], run[1]));
+        }
+        return ranges;
+    }
+
+    private LongStream retained(LongStream sequences) {
+        long first = firstSequence;
+        return first == 0 ? sequences : sequences.filter(sequence -> sequence >= first);
+    }
+
+    private void insert(String command, long sequence) {
+        if (add(command, sequence)) {
+            countCommand(command);
+        }
+    }
+
+    /**
+     * @return whether the command was not indexed yet
+     */
+    private boolean add(String command, long sequence) {
+        Node node = root;
+        int matched = 0;
+        while (matched < command.length()) {
+            Node child = node.childStartingWith(command.charAt(matched));
+            if (child == null) {
+                Node leaf = new Node(command.substring(matched));
+                leaf.add(sequence);
+                node.putChild(leaf);
+                return true;
+            }
+            int common = commonPrefixLength(child.label, command, matched);
+            if (common < child.label.length()) {
+                // splitting the edge: the common part becomes a new node above a copy of the child
+                Node split = new Node(child.label.substring(0, common));
+                split.commands = child.commands;
+                split.putChild(child.withLabel(child.label.substring(common)));
+                node.putChild(split);
+                child = split;
+            }
+            node = child;
+            matched += common;
+        }
+        return node.add(sequence);
+    }
+
+    /**
+     * Counts a new command in every node on its path, so each node knows how many commands it
+     * shares its bytes with.
+     */
+    private void countCommand(String command) {
+        Node node = root;
+        node.commands++;
+        for (int matched = 0; matched < command.length(); matched += node.label.length()) {
+            node = node.childStartingWith(command.charAt(matched));
+            node.commands++;
+        }
+    }
+
+    private static int commonPrefixLength(String label, String text, int from) {
+        int length = Math.min(label.length(), text.length() - from);
+        int common = 0;
+        while (common < length && label.charAt(common) == text.charAt(from + common)) {
+            common++;
+        }
+        return common;
+    }
+
+    private static void collect(Node node, List<LongPostings> postings) {
+        if (node.sequences != null) {
+            postings.add(node.sequences);
+        }
+        for (Node child : node.children) {
+            collect(child, postings);
+        }
+    }
+
+    private static void compact(Node node, long sequence) {
+        if (node.sequences != null) {
+            node.sequences = node.sequences.compactBefore(sequence);
+        }
+        for (Node child : node.children) {
+            compact(child, sequence);
+        }
+    }
+
+    private static void measure(Node node, long[] totals) {
+        LongPostings sequences = node.sequences;
+        Node[] children = node.children;
+        totals[0] += sequences == null ? 0 : 1;
+        totals[1]++;
+        totals[2] += nodeBytes(node, children);
+        totals[2] += sequences == null ? 0 : sequences.sizeInBytes();
+        for (Node child : children) {
+            measure(child, totals);
+        }
+    }
+
+    /**
+     * Shares the bytes of the node and of its ancestors ({@code inherited}) among the commands
+     * below it.
+     */
+    private static void attribute(Node node, String path, double inherited, Map<String, Long> usage) {
+        LongPostings sequences = node.sequences;
+        Node[] children = node.children;
+        String command = path + node.label;
+        int commands = node.commands;
+        if (commands == 0 && sequences == null) {
+            return;
+        }
+        // a command being added may not be counted yet
+        double share = inherited + (double) nodeBytes(node, children) / Math.max(commands, 1);
+        if (sequences != null) {
+            usage.put(command, Math.round(share + sequences.sizeInBytes()));
+        }
+        for (Node child : children) {
+            attribute(child, command, share, usage);
+        }
+    }
+
+    private static long nodeBytes(Node node, Node[] children) {
+        // node object, label string and its array, children array
+        return 24 + 24 + 16 + node.label.length() + 16 + 4L * children.length;
+    }
+
+    private static final class Node {
+
+        private final String label;
+        // sorted by the first character of their labels
+        private volatile Node[] children = NO_CHILDREN;
+        private volatile LongPostings sequences;
+        // commands held by this node and the nodes below it, updated by the writer
+        private volatile int commands;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        Node withLabel(String newLabel) {
+            Node copy = new Node(newLabel);
+            copy.children = children;
+            copy.sequences = sequences;
+            copy.commands = commands;
+            return copy;
+        }
+
+        Node childStartingWith(char first) {
+            Node[] current = children;
+            int index = indexOf(current, first);
+            return index >= 0 ? current[index] : null;
+        }
+
+        /**
+         * Adds the child, replacing the one starting with the same character.
+         */
+        void putChild(Node child) {
+            Node[] current = children;
+            int index = indexOf(current, child.label.charAt(0));
+            Node[] updated;
+            if (index >= 0) {
+                updated = current.clone();
+                updated[index] = child;
+            } else {
+                int insertion = -index - 1;
+                updated = new Node[current.length + 1];
+                System.arraycopy(current, 0, updated, 0, insertion);
+                updated[insertion] = child;
+                System.arraycopy(current, insertion, updated, insertion + 1, current.length - insertion);
+            }
+            children = updated;
+        }
+
+        /**
+         * @return whether the node did not hold a command yet
+         */
+        boolean add(long sequence) {
+            boolean added = sequences == null;
+            if (added) {
+                sequences = new LongPostings();
+            }
+            sequences.add(sequence);
+            return added;
+        }
+
+        private static int indexOf(Node[] nodes, char first) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char candidate = nodes[middle].label.charAt(0);
+                if (candidate < first) {
+                    low = middle + 1;
+                } else if (candidate > first) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -low - 1;
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+/**
+ * Thrown by {@link EventStore#append(String, long, java.util.Collection)} when the stream is not
+ * at the version expected by the caller, because other events were appended to it meanwhile or
+ * are being appended right now. Callers usually reload the stream and retry.
+ */
+public class ConcurrencyConflictException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String streamId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    public ConcurrencyConflictException(String streamId, long expectedVersion, long actualVersion) {
+        super("stream " + streamId + " is at version " + actualVersion + ", expected " + expectedVersion);
+        this.streamId = streamId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    public String streamId() {
+        return streamId;
+    }
+
+    public long expectedVersion() {
+        return expectedVersion;
+    }
+
+    public long actualVersion() {
+        return actualVersion;
+    }
+
+}
@@ -0,0 +1,113 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Compressed list of ascending sequences, each one written as the varint of its gap to the
+ * previous one: events of the same type stored close together take a single byte each. Like
+ * {@link LongPostings}, it is written by a single thread and read by any number of threads, which
+ * see the sequences published by the {@code length} volatile write.
+ */
+final class DeltaPostings {
+
+    private volatile byte[] bytes = new byte[16];
+    private volatile int length;
+    private long lastSequence = -1;
+
+    void add(long sequence) {
+        byte[] current = bytes;
+        int position = length;
+        if (position + 10 > current.length) {
+            current = Arrays.copyOf(current, Math.max(position + 10, current.length * 2));
+            bytes = current;
+        }
+        long value = sequence - lastSequence;
+        while ((value & ~0x7FL) != 0) {
+            current[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        current[position++] = (byte) value;
+        lastSequence = sequence;
+        length = position;
+    }
+
+    /**
+     * @return an estimate of the heap used by these postings: the object and its array
+     */
+    long sizeInBytes() {
+        return 32 + 16 + bytes.length;
+    }
+
+    /**
+     * @return the sequences published so far, decoded lazily in ascending order
+     */
+    LongStream stream() {
+        int written = length;
+        byte[] current = bytes;
+        PrimitiveIterator.OfLong sequences = new PrimitiveIterator.OfLong() {
+
+            private int offset;
+            private long sequence = -1;
+
+            @Override
+            public boolean hasNext() {
+                return offset < written;
+            }
+
+            @Override
+            public long nextLong() {
+                long value = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = current[offset++];
+                    value |= (long) (b & 0x7F) << shift;
+                    if (b >= 0) {
+                        sequence += value;
+                        return sequence;
+                    }
+                }
+            }
+        };
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(sequences,
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @return new postings without the sequences before the given one, or these postings when the
+     * dropped sequences would take less than half of them; readers are expected to skip the stale
+     * sequences
+     */
+    DeltaPostings compactBefore(long sequence) {
+        byte[] current = bytes;
+        int written = length;
+        int keptFrom = 0;
+        long previous = -1;
+        while (keptFrom < written) {
+            int offset = keptFrom;
+            long gap = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = current[offset++];
+                gap |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    break;
+                }
+            }
+            if (previous + gap >= sequence) {
+                break;
+            }
+            previous += gap;
+            keptFrom = offset;
+        }
+        if (keptFrom == 0 || keptFrom < written / 2) {
+            return this;
+        }
+        DeltaPostings compacted = new DeltaPostings();
+        stream().filter(value -> value >= sequence).forEach(compacted::add);
+        return compacted;
+    }
+
+}
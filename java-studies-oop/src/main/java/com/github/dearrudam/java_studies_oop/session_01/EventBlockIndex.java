@@ -0,0 +1,161 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+/**
+ * Sparse summary of the stored events, one entry per block of {@value #BLOCK_SIZE} consecutive
+ * sequences: the lowest and highest {@link Event#occurredOn()} epoch second of the block and a
+ * bitmask of the event classes it holds.
+ * <p>
+ * Time queries, and type queries once the {@link TypeIndex} of the store is detached, only read
+ * the blocks whose summary may match, at a heap cost of a few bytes per thousand events. The block still being
+ * written is always read, since its summary is incomplete. Classes get one bit each in order of
+ * appearance; from the {@value #SHARED_TYPE_BIT}th class on they share the last bit.
+ */
+final class EventBlockIndex implements EventIndex {
+
+    static final int BLOCK_SIZE = 1024;
+
+    private static final int BLOCK_SHIFT = Integer.numberOfTrailingZeros(BLOCK_SIZE);
+    private static final int SHARED_TYPE_BIT = Long.SIZE - 1;
+
+    /**
+     * Summaries of the blocks from {@code base} on; replaced as a whole when they grow or are
+     * compacted, so readers never see a partially copied one.
+     */
+    private record Blocks(long base, long[] minSeconds, long[] maxSeconds, long[] typeMasks) {
+
+        static Blocks startingAt(long base, int capacity) {
+            return new Blocks(base, new long[capacity], new long[capacity], new long[capacity]);
+        }
+
+        Blocks copy(long newBase, long end, int capacity) {
+            Blocks copy = startingAt(newBase, capacity);
+            int from = (int) (newBase - base);
+            int length = (int) (end - newBase);
+            System.arraycopy(minSeconds, from, copy.minSeconds, 0, length);
+            System.arraycopy(maxSeconds, from, copy.maxSeconds, 0, length);
+            System.arraycopy(typeMasks, from, copy.typeMasks, 0, length);
+            return copy;
+        }
+    }
+
+    private final Map<Class<?>, Integer> typeBits = new ConcurrentHashMap<>();
+    private volatile Blocks blocks = Blocks.startingAt(0, 16);
+    private volatile long indexed;
+
+    @Override
+    public void index(long sequence, Event event) {
+        index(sequence, event.occurredOn().getEpochSecond(), event.getClass());
+    }
+
+    /**
+     * Summarizes an event given its occurred epoch second and class; called by a single writer,
+     * in sequence order.
+     */
+    void index(long sequence, long epochSecond, Class<?> type) {
+        long block = sequence >> BLOCK_SHIFT;
+        Blocks current = blocks;
+        if (indexed == 0 && block != current.base()) {
+            // the first summarized event may follow discarded ones
+            current = current.copy(block, block, current.minSeconds().length);
+            blocks = current;
+        }
+        int slot = (int) (block - current.base());
+        if (slot == current.minSeconds().length) {
+            current = current.copy(current.base(), block, slot * 2);
+            blocks = current;
+        }
+        long typeMask = 1L << typeBits.computeIfAbsent(type, key -> Math.min(typeBits.size(), SHARED_TYPE_BIT));
+        if (indexed == 0 || (indexed - 1) >> BLOCK_SHIFT != block) {
+            current.minSeconds()[slot] = epochSecond;
+            current.maxSeconds()[slot] = epochSecond;
+            current.typeMasks()[slot] = typeMask;
+        } else {
+            current.minSeconds()[slot] = Math.min(current.minSeconds()[slot], epochSecond);
+            current.maxSeconds()[slot] = Math.max(current.maxSeconds()[slot], epochSecond);
+            current.typeMasks()[slot] |= typeMask;
+        }
+        indexed = sequence + 1;
+    }
+
+    /**
+     * Drops the summaries of the blocks holding only discarded events, once they make up half of
+     * the summaries, so eviction costs O(1) amortized.
+     */
+    @Override
+    public void evictBefore(long sequence) {
+        Blocks current = blocks;
+        long firstKept = sequence >> BLOCK_SHIFT;
+        long end = (indexed + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+        long dropped = Math.min(firstKept, end) - current.base();
+        if (dropped > 0 && dropped >= (end - current.base()) / 2) {
+            long newBase = current.base() + dropped;
+            blocks = current.copy(newBase, end, Math.max((int) (end - newBase), 16));
+        }
+    }
+
+    /**
+     * @return the sequences from {@code first} (inclusive) to {@code next} (exclusive) of the
+     * blocks that may hold events that occurred from {@code from} (inclusive) to {@code to}
+     * (exclusive), in storing order; the caller filters the events themselves
+     */
+    LongStream candidatesBetween(Instant from, Instant to, long first, long next) {
+        long fromSecond = from.getEpochSecond();
+        long toSecond = to.getEpochSecond();
+        return candidates(first, next, (summaries, slot) ->
+                summaries.maxSeconds()[slot] >= fromSecond && summaries.minSeconds()[slot] <= toSecond);
+    }
+
+    /**
+     * @return the sequences from {@code first} (inclusive) to {@code next} (exclusive) of the
+     * blocks that may hold events of the given type (subtypes included), in storing order; the
+     * caller filters the events themselves
+     */
+    LongStream candidatesOf(Class<? extends Event> type, long first, long next) {
+        long typeMask = 0;
+        for (Map.Entry<Class<?>, Integer> entry : typeBits.entrySet()) {
+            if (type.isAssignableFrom(entry.getKey()) || entry.getValue() == SHARED_TYPE_BIT) {
+                typeMask |= 1L << entry.getValue();
+            }
+        }
+        long mask = typeMask;
+        return mask == 0
+                ? LongStream.empty()
+                : candidates(first, next, (summaries, slot) -> (summaries.typeMasks()[slot] & mask) != 0);
+    }
+
+    @FunctionalInterface
+    private interface BlockFilter {
+
+        boolean mayMatch(Blocks summaries, int slot);
+
+    }
+
+    private LongStream candidates(long first, long next, BlockFilter filter) {
+        // summaries are only complete for the blocks before the one being written
+        long complete = indexed >> BLOCK_SHIFT;
+        Blocks current = blocks;
+        long firstBlock = Math.max(first >> BLOCK_SHIFT, current.base());
+        long lastBlock = (next - 1) >> BLOCK_SHIFT;
+        if (first >= next) {
+            return LongStream.empty();
+        }
+        long[] selected = new long[(int) Math.max(lastBlock - firstBlock + 1, 0)];
+        int count = 0;
+        for (long block = firstBlock; block <= lastBlock; block++) {
+            if (block >= complete || filter.mayMatch(current, (int) (block - current.base()))) {
+                selected[count++] = block;
+            }
+        }
+        return Arrays.stream(selected, 0, count)
+                .flatMap(block -> LongStream.range(
+                        Math.max(block << BLOCK_SHIFT, first),
+                        Math.min((block + 1) << BLOCK_SHIFT, next)));
+    }
+
+}
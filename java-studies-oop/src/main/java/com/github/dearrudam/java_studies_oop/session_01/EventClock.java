@@ -0,0 +1,32 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Source of the {@link Event#occurredOn()} instants given to events created without one.
+ * <p>
+ * {@link MessageEvent} and {@link ProcessEvent} read the clock set by {@link EventClocks#use(EventClock)}.
+ */
+@FunctionalInterface
+public interface EventClock {
+
+    Instant now();
+
+    /**
+     * @return the high-resolution clock, reading the system clock on every call
+     */
+    static EventClock system() {
+        return Instant::now;
+    }
+
+    /**
+     * @return a clock caching the current instant, refreshed by a background thread every
+     * {@code resolution}
+     * @see CoarseEventClock
+     */
+    static CoarseEventClock coarse(Duration resolution) {
+        return new CoarseEventClock(resolution);
+    }
+
+}
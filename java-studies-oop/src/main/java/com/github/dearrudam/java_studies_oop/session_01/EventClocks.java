@@ -0,0 +1,31 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Objects;
+
+/**
+ * Holds the {@link EventClock} used by the events, {@link EventClock#system()} by default.
+ */
+public final class EventClocks {
+
+    private static volatile EventClock current = EventClock.system();
+
+    private EventClocks() {
+    }
+
+    public static EventClock current() {
+        return current;
+    }
+
+    /**
+     * Replaces the clock used by the events created from now on.
+     *
+     * @return the clock used until now
+     */
+    public static EventClock use(EventClock clock) {
+        Objects.requireNonNull(clock, "clock is required");
+        EventClock previous = current;
+        current = clock;
+        return previous;
+    }
+
+}
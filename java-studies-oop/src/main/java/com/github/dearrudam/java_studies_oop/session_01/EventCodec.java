@@ -0,0 +1,36 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Describes how an {@link Event} type is written by {@link EventCodecs}.
+ * <p>
+ * Each type is identified by a unique type id byte, and its content (besides the occurred instant,
+ * which is written by {@link EventCodecs}) is carried as a single UTF-8 payload. New event types
+ * are registered with {@link EventCodecs#register(EventCodec)} or as a service provider of this
+ * interface ({@code META-INF/services}).
+ */
+public interface EventCodec<E extends Event> {
+
+    static <E extends Event> EventCodec<E> of(byte typeId,
+                                              Class<E> eventType,
+                                              Function<? super E, String> payload,
+                                              BiFunction<String, Instant, ? extends E> factory) {
+        return new EventCodecs.SimpleCodec<>(typeId,
+                Objects.requireNonNull(eventType, "event type is required"),
+                Objects.requireNonNull(payload, "payload function is required"),
+                Objects.requireNonNull(factory, "factory is required"));
+    }
+
+    byte typeId();
+
+    Class<E> eventType();
+
+    String payload(E event);
+
+    E create(String payload, Instant occurredOn);
+
+}
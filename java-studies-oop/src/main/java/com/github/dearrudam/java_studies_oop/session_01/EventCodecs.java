@@ -0,0 +1,181 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Compact binary format for {@link Event}s.
+ * <p>
+ * An encoded event is laid out as {@code [type id][epoch seconds][nanos][payload length][payload]},
+ * where the type id is one byte, the epoch seconds are a zig-zag varint, the nanos and the payload
+ * length are varints and the payload is UTF-8. {@link MessageEvent} and {@link ProcessEvent} are
+ * registered out of the box; other types are found through {@link ServiceLoader} or registered
+ * with {@link #register(EventCodec)}.
+ */
+public final class EventCodecs {
+
+    public static final EventCodec<MessageEvent> MESSAGE_EVENT =
+            EventCodec.of((byte) 1, MessageEvent.class, MessageEvent::message, MessageEvent::new);
+
+    public static final EventCodec<ProcessEvent> PROCESS_EVENT =
+            EventCodec.of((byte) 2, ProcessEvent.class, ProcessEvent::command, ProcessEvent::new);
+
+    private static final EventCodec<?>[] BY_TYPE_ID = new EventCodec<?>[256];
+    private static final Map<Class<?>, EventCodec<?>> BY_CLASS = new ConcurrentHashMap<>();
+
+    static {
+        register(MESSAGE_EVENT);
+        register(PROCESS_EVENT);
+        ServiceLoader.load(EventCodec.class).forEach(EventCodecs::register);
+    }
+
+    private EventCodecs() {
+    }
+
+    public static synchronized void register(EventCodec<?> codec) {
+        Objects.requireNonNull(codec, "codec is required");
+        int slot = Byte.toUnsignedInt(codec.typeId());
+        EventCodec<?> registered = BY_TYPE_ID[slot];
+        if (registered != null && !registered.eventType().equals(codec.eventType())) {
+            throw new IllegalArgumentException("type id " + slot + " is already registered for " + registered.eventType().getName());
+        }
+        BY_TYPE_ID[slot] = codec;
+        BY_CLASS.put(codec.eventType(), codec);
+    }
+
+    public static <E extends Event> EventCodec<E> codecOf(Class<E> type) {
+        @SuppressWarnings("unchecked")
+        EventCodec<E> codec = (EventCodec<E>) BY_CLASS.get(type);
+        if (codec == null) {
+            throw new IllegalArgumentException("unsupported event type: " + type.getName());
+        }
+        return codec;
+    }
+
+    public static EventCodec<?> codecOf(byte typeId) {
+        EventCodec<?> codec = BY_TYPE_ID[Byte.toUnsignedInt(typeId)];
+        if (codec == null) {
+            throw new IllegalArgumentException("unknown event type id: " + Byte.toUnsignedInt(typeId));
+        }
+        return codec;
+    }
+
+    public static byte[] encode(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        EventCodec<Event> codec = codecFor(event);
+        byte[] payload = payloadOf(codec, event);
+        ByteBuffer target = ByteBuffer.allocate(encodedSize(event.occurredOn(), payload.length));
+        write(codec.typeId(), event.occurredOn(), payload, target);
+        return target.array();
+    }
+
+    /**
+     * Writes the event at the current position of the target buffer.
+     *
+     * @return the number of written bytes
+     */
+    public static int encode(Event event, ByteBuffer target) {
+        Objects.requireNonNull(event, "event is required");
+        EventCodec<Event> codec = codecFor(event);
+        int start = target.position();
+        write(codec.typeId(), event.occurredOn(), payloadOf(codec, event), target);
+        return target.position() - start;
+    }
+
+    /**
+     * Reads an event from the current position of the source buffer.
+     */
+    public static Event decode(ByteBuffer source) {
+        EventCodec<?> codec = codecOf(source.get());
+        Instant occurredOn = Instant.ofEpochSecond(zigZagDecode(readVarLong(source)), readVarLong(source));
+        byte[] payload = new byte[(int) readVarLong(source)];
+        source.get(payload);
+        return codec.create(new String(payload, StandardCharsets.UTF_8), occurredOn);
+    }
+
+    public static int encodedSize(Event event) {
+        return encodedSize(event.occurredOn(), payloadOf(codecFor(event), event).length);
+    }
+
+    static void writeVarLong(ByteBuffer target, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.put((byte) value);
+    }
+
+    static long readVarLong(ByteBuffer source) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte current = source.get();
+            value |= (long) (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+
+    static int varLongSize(long value) {
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+    static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void write(byte typeId, Instant occurredOn, byte[] payload, ByteBuffer target) {
+        target.put(typeId);
+        writeVarLong(target, zigZagEncode(occurredOn.getEpochSecond()));
+        writeVarLong(target, occurredOn.getNano());
+        writeVarLong(target, payload.length);
+        target.put(payload);
+    }
+
+    private static int encodedSize(Instant occurredOn, int payloadLength) {
+        return 1
+                + varLongSize(zigZagEncode(occurredOn.getEpochSecond()))
+                + varLongSize(occurredOn.getNano())
+                + varLongSize(payloadLength)
+                + payloadLength;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventCodec<Event> codecFor(Event event) {
+        return (EventCodec<Event>) codecOf(event.getClass());
+    }
+
+    private static byte[] payloadOf(EventCodec<Event> codec, Event event) {
+        return codec.payload(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    record SimpleCodec<E extends Event>(byte typeId,
+                                        Class<E> eventType,
+                                        Function<? super E, String> payload,
+                                        BiFunction<String, Instant, ? extends E> factory) implements EventCodec<E> {
+
+        @Override
+        public String payload(E event) {
+            return payload.apply(event);
+        }
+
+        @Override
+        public E create(String payload, Instant occurredOn) {
+            return factory.apply(payload, occurredOn);
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy reader over the events of an {@link EventStore}.
+ * <p>
+ * The cursor reads one event at a time straight from the {@link EventLog}, without copying the
+ * stored events. Its {@link #position()} is the sequence of the next event to be read, so a
+ * consumer can keep it and later resume with {@link EventStore#cursor(long)}. Events stored
+ * after the cursor was created are also visited, while events discarded by retention before being
+ * read are skipped. The store cannot be modified through it.
+ */
+public final class EventCursor implements Iterator<Event> {
+
+    private final EventLog events;
+    private long position;
+
+    EventCursor(EventLog events, long position) {
+        this.events = events;
+        this.position = position;
+    }
+
+    /**
+     * @return the sequence of the next event to be read
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return position < events.nextSequence();
+    }
+
+    @Override
+    public Event next() {
+        while (hasNext()) {
+            position = Math.max(position, events.firstSequence());
+            Event event = EventStore.readRetained(events, position++);
+            if (event != null) {
+                return event;
+            }
+        }
+        throw new NoSuchElementException("no event stored with sequence " + position);
+    }
+
+}
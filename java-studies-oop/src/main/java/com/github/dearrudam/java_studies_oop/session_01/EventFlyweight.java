@@ -0,0 +1,134 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Reusable {@link Event} view over an event encoded by {@link EventCodecs}.
+ * <p>
+ * Wrapping a buffer does not decode anything: the header is read on first access, and the
+ * occurred instant and payload objects are only created when {@link #occurredOn()} or
+ * {@link #payload()} are called. Scans can then filter with {@link #epochSecond()},
+ * {@link #nano()} and {@link #occurredBetween(Instant, Instant)} without allocating. A flyweight
+ * is only valid until it is wrapped again; {@link #materialize()} returns a standalone event.
+ */
+public final class EventFlyweight implements Event {
+
+    /**
+     * Receives the events of a scan.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+
+        /**
+         * @return {@code false} to stop the scan
+         */
+        boolean visit(long sequence, EventFlyweight event);
+
+    }
+
+    private ByteBuffer buffer;
+    private int offset;
+    private boolean headerRead;
+    private long epochSecond;
+    private int nano;
+    private int payloadOffset;
+    private int payloadLength;
+
+    public EventFlyweight wrap(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.headerRead = false;
+        return this;
+    }
+
+    public byte typeId() {
+        return buffer.get(offset);
+    }
+
+    public long epochSecond() {
+        readHeader();
+        return epochSecond;
+    }
+
+    public int nano() {
+        readHeader();
+        return nano;
+    }
+
+    /**
+     * @return whether the event occurred from {@code from} (inclusive) to {@code to} (exclusive)
+     */
+    public boolean occurredBetween(Instant from, Instant to) {
+        readHeader();
+        return compareTo(from) >= 0 && compareTo(to) < 0;
+    }
+
+    @Override
+    public Instant occurredOn() {
+        readHeader();
+        return Instant.ofEpochSecond(epochSecond, nano);
+    }
+
+    public int payloadLength() {
+        readHeader();
+        return payloadLength;
+    }
+
+    public String payload() {
+        readHeader();
+        byte[] bytes = new byte[payloadLength];
+        buffer.get(payloadOffset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the number of bytes taken by the wrapped event
+     */
+    public int encodedLength() {
+        readHeader();
+        return payloadOffset + payloadLength - offset;
+    }
+
+    public Event materialize() {
+        return EventCodecs.codecOf(typeId()).create(payload(), occurredOn());
+    }
+
+    @Override
+    public String toString() {
+        return "EventFlyweight{" +
+                "typeId=" + typeId() +
+                ", occurredOn=" + occurredOn() +
+                ", payloadLength=" + payloadLength() +
+                '}';
+    }
+
+    private int compareTo(Instant instant) {
+        int seconds = Long.compare(epochSecond, instant.getEpochSecond());
+        return seconds != 0 ? seconds : Integer.compare(nano, instant.getNano());
+    }
+
+    private void readHeader() {
+        if (headerRead) {
+            return;
+        }
+        payloadOffset = offset + 1;
+        epochSecond = EventCodecs.zigZagDecode(readVarLong());
+        nano = (int) readVarLong();
+        payloadLength = (int) readVarLong();
+        headerRead = true;
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte current = buffer.get(payloadOffset++);
+            value |= (long) (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,216 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-type event counters over time buckets of a second, a minute and an hour, to be
+ * {@link EventStore#attach(EventIndex) attached} to an {@link EventStore} so rate queries never
+ * touch the stored events.
+ * <p>
+ * Each {@link Resolution} keeps a fixed ring of buckets in primitive arrays, covering the most
+ * recent hour of seconds, day of minutes and month of hours. Storing an event increments one bucket
+ * per resolution with atomic operations, without locking; a bucket is reused once its slot is
+ * needed by a newer period. Counts over a window add up the coarsest buckets fitting in it and the
+ * finer ones at its edges, so a query costs O(buckets). Events discarded by retention stay counted.
+ */
+public final class EventHistogramIndex implements EventIndex {
+
+    public enum Resolution {
+        SECOND(1, 3600),
+        MINUTE(60, 24 * 60),
+        HOUR(3600, 30 * 24);
+
+        private final long seconds;
+        private final int buckets;
+
+        Resolution(long seconds, int buckets) {
+            this.seconds = seconds;
+            this.buckets = buckets;
+        }
+
+        /**
+         * @return the length of a bucket in seconds
+         */
+        public long seconds() {
+            return seconds;
+        }
+
+        /**
+         * @return how many of the most recent buckets are kept
+         */
+        public int buckets() {
+            return buckets;
+        }
+    }
+
+    private static final Resolution[] RESOLUTIONS = Resolution.values();
+
+    private final Map<Class<?>, Buckets[]> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void index(long sequence, Event event) {
+        Buckets[] buckets = histograms.computeIfAbsent(event.getClass(), type -> newHistogram());
+        long epochSecond = event.occurredOn().getEpochSecond();
+        for (Buckets bucket : buckets) {
+            bucket.increment(epochSecond);
+        }
+    }
+
+    /**
+     * @return how many events of the given type (subtypes included) occurred from {@code from}
+     * (inclusive) to {@code to} (exclusive), both truncated to the second; periods older than the
+     * buckets kept by the needed resolution are not counted
+     */
+    public long count(Class<? extends Event> type, Instant from, Instant to) {
+        Objects.requireNonNull(type, "type is required");
+        Objects.requireNonNull(from, "from is required");
+        Objects.requireNonNull(to, "to is required");
+        long total = 0;
+        for (Buckets[] buckets : histogramsOf(type)) {
+            total += count(buckets, RESOLUTIONS.length - 1, from.getEpochSecond(), to.getEpochSecond());
+        }
+        return total;
+    }
+
+    /**
+     * @return the number of events of the given type (subtypes included) in each bucket of the
+     * resolution, from the one holding {@code from} up to the one before the bucket holding
+     * {@code to}
+     */
+    public long[] counts(Class<? extends Event> type, Resolution resolution, Instant from, Instant to) {
+        Objects.requireNonNull(type, "type is required");
+        Objects.requireNonNull(resolution, "resolution is required");
+        Objects.requireNonNull(from, "from is required");
+        Objects.requireNonNull(to, "to is required");
+        long first = Math.floorDiv(from.getEpochSecond(), resolution.seconds);
+        long last = Math.floorDiv(to.getEpochSecond(), resolution.seconds);
+        long[] counts = new long[(int) Math.max(last - first, 0)];
+        for (Buckets[] buckets : histogramsOf(type)) {
+            Buckets bucket = buckets[resolution.ordinal()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += bucket.count(first + i);
+            }
+        }
+        return counts;
+    }
+
+    private Iterable<Buckets[]> histogramsOf(Class<? extends Event> type) {
+        return histograms.entrySet()
+                .stream()
+                .filter(entry -> type.isAssignableFrom(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toList();
+    }
+
+    /**
+     * Counts [from, to) with the buckets of the given resolution fully inside it, and the finer
+     * resolutions for the edges.
+     */
+    private static long count(Buckets[] buckets, int resolution, long from, long to) {
+        if (from >= to) {
+            return 0;
+        }
+        Buckets bucket = buckets[resolution];
+        long width = bucket.width;
+        long firstBucket = Math.floorDiv(from + width - 1, width);
+        long lastBucket = Math.floorDiv(to, width);
+        if (resolution == 0) {
+            return bucket.sum(firstBucket, lastBucket);
+        }
+        if (firstBucket >= lastBucket) {
+            return count(buckets, resolution - 1, from, to);
+        }
+        return count(buckets, resolution - 1, from, firstBucket * width)
+                + bucket.sum(firstBucket, lastBucket)
+                + count(buckets, resolution - 1, lastBucket * width, to);
+    }
+
+    private static Buckets[] newHistogram() {
+        Buckets[] buckets = new Buckets[RESOLUTIONS.length];
+        for (Resolution resolution : RESOLUTIONS) {
+            buckets[resolution.ordinal()] = new Buckets(resolution.seconds, resolution.buckets);
+        }
+        return buckets;
+    }
+
+    /**
+     * Ring of counters: each slot holds the count of one period, identified by the period number
+     * ({@code epoch second / width}) kept alongside it.
+     */
+    private static final class Buckets {
+
+        private static final long EMPTY = Long.MIN_VALUE;
+        private static final long RESETTING = Long.MIN_VALUE + 1;
+
+        private final long width;
+        private final AtomicLongArray periods;
+        private final AtomicLongArray counts;
+
+        private Buckets(long width, int size) {
+            this.width = width;
+            this.periods = new AtomicLongArray(size);
+            this.counts = new AtomicLongArray(size);
+            for (int slot = 0; slot < size; slot++) {
+                periods.set(slot, EMPTY);
+            }
+        }
+
+        void increment(long epochSecond) {
+            long period = Math.floorDiv(epochSecond, width);
+            int slot = slotOf(period);
+            while (true) {
+                long current = periods.get(slot);
+                if (current == period) {
+                    counts.incrementAndGet(slot);
+                    return;
+                }
+                if (current == RESETTING) {
+                    Thread.onSpinWait();
+                } else if (current > period) {
+                    // older than the periods kept by the ring
+                    return;
+                } else if (periods.compareAndSet(slot, current, RESETTING)) {
+                    // reusing the slot of an older period, counters see it once it is reset
+                    counts.set(slot, 0);
+                    periods.set(slot, period);
+                }
+            }
+        }
+
+        long count(long period) {
+            int slot = slotOf(period);
+            if (periods.get(slot) != period) {
+                return 0;
+            }
+            long count = counts.get(slot);
+            return periods.get(slot) == period ? count : 0;
+        }
+
+        long sum(long fromPeriod, long toPeriod) {
+            long total = 0;
+            if (toPeriod - fromPeriod < periods.length()) {
+                for (long period = fromPeriod; period < toPeriod; period++) {
+                    total += count(period);
+                }
+            } else {
+                // a window wider than the ring: visiting each slot once
+                for (int slot = 0; slot < periods.length(); slot++) {
+                    long period = periods.get(slot);
+                    if (period >= fromPeriod && period < toPeriod) {
+                        total += count(period);
+                    }
+                }
+            }
+            return total;
+        }
+
+        private int slotOf(long period) {
+            return (int) Math.floorMod(period, (long) periods.length());
+        }
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+/**
+ * Structure kept up to date by the {@link EventStore}: every stored event is handed to its
+ * indexes, together with its sequence number, right after being appended to the {@link EventLog}.
+ */
+public interface EventIndex {
+
+    void index(long sequence, Event event);
+
+    /**
+     * Called once the events before the given sequence are discarded from the log, so the index
+     * can release its entries for them.
+     */
+    default void evictBefore(long sequence) {
+    }
+
+}
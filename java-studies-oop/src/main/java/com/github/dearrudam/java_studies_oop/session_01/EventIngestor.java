@@ -0,0 +1,71 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer ingestion path for an {@link EventStore}.
+ * <p>
+ * Producer threads hand events over through a lock-free {@link MpscRingBuffer}, so they never
+ * contend on the store lock; a single writer thread drains the buffer and stores each drained
+ * batch with {@link EventStore#storeAll(java.util.Collection)}, keeping the order of the ring.
+ * When the buffer is full, producers spin for a while and then yield until the writer catches up.
+ */
+public final class EventIngestor implements AutoCloseable {
+
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final BatchWriter<Event> writer;
+
+    public EventIngestor(EventStore eventStore) {
+        this(eventStore, DEFAULT_CAPACITY);
+    }
+
+    public EventIngestor(EventStore eventStore, int capacity) {
+        Objects.requireNonNull(eventStore, "event store is required");
+        this.writer = new BatchWriter<>("event-ingestor", capacity, eventStore::storeAll);
+    }
+
+    /**
+     * Enqueues the event to be stored by the writer thread.
+     */
+    public void store(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        ensureAvailable();
+        if (!writer.offer(event)) {
+            ensureAvailable();
+        }
+    }
+
+    /**
+     * Waits until every event enqueued before this call has been stored.
+     */
+    public void flush() {
+        long target = writer.offered();
+        while (writer.handled() < target) {
+            ensureAvailable();
+            LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+        if (writer.failure() != null) {
+            throw writer.failure();
+        }
+    }
+
+    private void ensureAvailable() {
+        if (writer.failure() != null) {
+            throw new IllegalStateException("event ingestor failed", writer.failure());
+        }
+        if (!writer.isAccepting()) {
+            throw new IllegalStateException("event ingestor is closed");
+        }
+    }
+
+}
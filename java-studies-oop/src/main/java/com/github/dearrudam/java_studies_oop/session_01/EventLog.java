@@ -0,0 +1,90 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Append-only storage used by the {@link EventStore}.
+ * <p>
+ * Every appended event receives a sequence number: the first one is {@code 0} and each
+ * following event gets the next number. Implementations are written for a single writer
+ * and any number of concurrent readers. Old events can be discarded with
+ * {@link #truncateBefore(long)}, which never renumbers the remaining ones.
+ */
+public interface EventLog extends AutoCloseable {
+
+    /**
+     * @return the sequence number given to the appended event
+     */
+    long append(Event event);
+
+    /**
+     * Appends the events in order as a single operation. Durable implementations make the whole
+     * batch durable at once (group commit).
+     *
+     * @return the sequence number given to the first event of the batch
+     */
+    default long appendAll(List<? extends Event> events) {
+        long first = nextSequence();
+        for (Event event : events) {
+            append(event);
+        }
+        return first;
+    }
+
+    Event read(long sequence);
+
+    /**
+     * @return the sequence number that the next appended event will receive
+     */
+    long nextSequence();
+
+    /**
+     * @return the sequence number of the oldest event still kept by the log
+     */
+    default long firstSequence() {
+        return 0;
+    }
+
+    /**
+     * Discards the events before the given sequence, at the granularity of the log (whole chunks
+     * or segments), so fewer events may be discarded than asked for. Logs that cannot discard
+     * events keep all of them.
+     *
+     * @return the new {@link #firstSequence()}
+     */
+    default long truncateBefore(long sequence) {
+        return firstSequence();
+    }
+
+    /**
+     * Visits the events from the given sequence on through a single {@link EventFlyweight}. Logs
+     * keeping encoded events read them in place; this default encodes each event it reads.
+     */
+    default void scan(long fromSequence, EventFlyweight.Visitor visitor) {
+        EventFlyweight flyweight = new EventFlyweight();
+        for (long sequence = Math.max(fromSequence, firstSequence()), next = nextSequence(); sequence < next; sequence++) {
+            if (!visitor.visit(sequence, flyweight.wrap(ByteBuffer.wrap(EventCodecs.encode(read(sequence))), 0))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return an immutable list with the events appended so far
+     */
+    default List<Event> snapshot() {
+        List<Event> events = new ArrayList<>();
+        for (long sequence = firstSequence(), next = nextSequence(); sequence < next; sequence++) {
+            events.add(read(sequence));
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    @Override
+    default void close() {
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary protocol spoken by {@link EventStoreServer} and {@link EventStoreClient}.
+ * <p>
+ * Every message is a frame {@code [int length][body]}. A request body is {@code [byte operation]}
+ * followed by its arguments, a response body is {@code [byte status]} followed by the result or,
+ * for {@link #ERROR}, by a UTF-8 message. Events are written by {@link EventCodecs}, back to back.
+ * Requests are pipelined: a client may send any number of them without waiting, and the server
+ * answers them in the order they were received.
+ * <ul>
+ *     <li>{@link #STORE} {@code [event]} answers {@code [long sequence]}</li>
+ *     <li>{@link #STORE_ALL} {@code [int count][event]...} answers {@code [long first sequence]}</li>
+ *     <li>{@link #READ} {@code [long from sequence][int max events]} answers
+ *     {@code [int count][event]...}, with fewer events than asked when they would not fit in a
+ *     frame</li>
+ * </ul>
+ */
+final class EventProtocol {
+
+    static final byte STORE = 1;
+    static final byte STORE_ALL = 2;
+    static final byte READ = 3;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    static final int MAX_FRAME_LENGTH = 64 * 1024 * 1024;
+
+    /**
+     * Room left for the events of a {@link #READ} response, after its status and count.
+     */
+    static final int MAX_READ_BYTES = MAX_FRAME_LENGTH - Byte.BYTES - Integer.BYTES;
+
+    private EventProtocol() {
+    }
+
+    /**
+     * Reads the next frame into the given buffer, or into a larger one when it does not fit.
+     *
+     * @return the buffer holding the frame body, from its position to its limit
+     */
+    static ByteBuffer readFrame(DataInputStream in, ByteBuffer buffer) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FRAME_LENGTH) {
+            throw new IOException("invalid frame length: " + length);
+        }
+        if (length > buffer.capacity()) {
+            buffer = ByteBuffer.allocate(Math.max(length, buffer.capacity() * 2));
+        }
+        in.readFully(buffer.array(), 0, length);
+        return buffer.clear().limit(length);
+    }
+
+    /**
+     * Growable frame body. Unlike {@link ByteArrayOutputStream#writeTo(java.io.OutputStream)},
+     * writing it out holds no monitor, so a virtual thread blocked on a slow socket does not pin
+     * its carrier thread.
+     */
+    static final class FrameBody extends ByteArrayOutputStream {
+
+        FrameBody(int size) {
+            super(size);
+        }
+
+        void writeFrameTo(DataOutputStream out) throws IOException {
+            out.writeInt(count);
+            out.write(buf, 0, count);
+        }
+    }
+
+    static void writeFrame(DataOutputStream out, FrameBody body) throws IOException {
+        body.writeFrameTo(out);
+    }
+
+    static void writeEvents(DataOutputStream out, List<? extends Event> events) throws IOException {
+        out.writeInt(events.size());
+        for (Event event : events) {
+            out.write(EventCodecs.encode(event));
+        }
+    }
+
+    static List<Event> readEvents(ByteBuffer body) {
+        int count = body.getInt();
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(EventCodecs.decode(body));
+        }
+        return events;
+    }
+
+    static void writeError(DataOutputStream out, String message) throws IOException {
+        out.writeByte(ERROR);
+        out.write(String.valueOf(message).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readError(ByteBuffer body) {
+        return StandardCharsets.UTF_8.decode(body).toString();
+    }
+
+}
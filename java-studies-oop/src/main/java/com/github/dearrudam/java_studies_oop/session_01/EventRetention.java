@@ -0,0 +1,171 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Enforces a {@link RetentionPolicy} on an {@link EventStore} in the background.
+ * <p>
+ * Every interval a daemon thread discards the oldest events exceeding the policy through
+ * {@link EventLog#truncateBefore(long)}: the in-memory log releases chunks of events and the
+ * segmented log deletes whole segments, while logs that cannot discard events keep them. Each run
+ * examines at most {@value #MAX_EVENTS_PER_RUN} events, so the work is spread over several runs
+ * instead of stalling the writers. Ages are measured with the {@link EventClocks#current() event
+ * clock} and checked in storing order; sizes are the {@link EventCodecs#encodedSize(Event) encoded
+ * sizes}, accounted in chunks of {@value #CHUNK_EVENTS} events.
+ */
+public final class EventRetention implements AutoCloseable {
+
+    public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    static final int MAX_EVENTS_PER_RUN = 64 * 1024;
+    private static final int CHUNK_EVENTS = 32;
+
+    private final EventStore store;
+    private final RetentionPolicy policy;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler;
+    private final Deque<Chunk> chunks = new ArrayDeque<>();
+    private long measured;
+    private long bytes;
+    private volatile RuntimeException failure;
+
+    public static EventRetention start(EventStore store, RetentionPolicy policy) {
+        return start(store, policy, DEFAULT_INTERVAL);
+    }
+
+    public static EventRetention start(EventStore store, RetentionPolicy policy, Duration interval) {
+        Objects.requireNonNull(store, "event store is required");
+        Objects.requireNonNull(policy, "policy is required");
+        Objects.requireNonNull(interval, "interval is required");
+        if (interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("interval must be positive");
+        }
+        return new EventRetention(store, policy, interval.toNanos());
+    }
+
+    private EventRetention(EventStore store, RetentionPolicy policy, long interval) {
+        this.store = store;
+        this.policy = policy;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("event-retention")
+                .daemon()
+                .factory());
+        this.scheduler.scheduleWithFixedDelay(this::run, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs an enforcement round right away.
+     *
+     * @return the first sequence kept by the store
+     */
+    public long enforce() {
+        if (failure != null) {
+            throw new IllegalStateException("event retention failed", failure);
+        }
+        lock.lock();
+        try {
+            long first = store.firstSequence();
+            long next = store.nextSequence();
+            long cut = Math.max(first, next - policy.maxEvents());
+            if (policy.maxAge() != null) {
+                cut = expiredBefore(cut, next);
+            }
+            if (policy.maxBytes() != Long.MAX_VALUE) {
+                cut = Math.max(cut, oversizedBefore(first, next));
+            }
+            if (cut > first) {
+                first = store.truncateBefore(cut);
+            }
+            release(first);
+            return first;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void run() {
+        try {
+            enforce();
+        } catch (RuntimeException e) {
+            failure = e;
+            scheduler.shutdown();
+        }
+    }
+
+    /**
+     * @return the sequence of the first event, from the given one, that has not expired yet
+     */
+    private long expiredBefore(long from, long next) {
+        Instant oldest = EventClocks.current().now().minus(policy.maxAge());
+        long limit = Math.min(next, from + MAX_EVENTS_PER_RUN);
+        long sequence = from;
+        while (sequence < limit && store.read(sequence).occurredOn().isBefore(oldest)) {
+            sequence++;
+        }
+        return sequence;
+    }
+
+    /**
+     * Measures the events stored since the previous round.
+     *
+     * @return the sequence from which the kept events fit in the max bytes
+     */
+    private long oversizedBefore(long first, long next) {
+        release(first);
+        measured = Math.max(measured, first);
+        long limit = Math.min(next, measured + MAX_EVENTS_PER_RUN);
+        for (; measured < limit; measured++) {
+            Chunk last = chunks.peekLast();
+            if (last == null || last.next - last.first == CHUNK_EVENTS) {
+                last = new Chunk(measured);
+                chunks.addLast(last);
+            }
+            int size = EventCodecs.encodedSize(store.read(measured));
+            last.next = measured + 1;
+            last.bytes += size;
+            bytes += size;
+        }
+        long cut = first;
+        long kept = bytes;
+        for (Chunk chunk : chunks) {
+            if (kept <= policy.maxBytes()) {
+                break;
+            }
+            kept -= chunk.bytes;
+            cut = chunk.next;
+        }
+        return cut;
+    }
+
+    private void release(long first) {
+        while (!chunks.isEmpty() && chunks.peekFirst().next <= first) {
+            bytes -= chunks.removeFirst().bytes;
+        }
+    }
+
+    private static final class Chunk {
+
+        private final long first;
+        private long next;
+        private long bytes;
+
+        private Chunk(long first) {
+            this.first = first;
+            this.next = first;
+        }
+    }
+
+}
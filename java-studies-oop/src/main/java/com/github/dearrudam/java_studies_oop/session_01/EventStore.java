@@ -1,20 +1,475 @@
 package com.github.dearrudam.java_studies_oop.session_01;
 
-import java.util.LinkedList;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
-public class EventStore {
+/**
+ * Stores events into an {@link EventLog} and keeps the indexes used by its queries.
+ * <p>
+ * Time queries are served by a sparse {@link EventBlockIndex} that only summarizes blocks of
+ * events, so its heap does not grow with the stored events; an attached {@link TimeIndex} serves
+ * {@link #between(Instant, Instant)} and {@link #since(Instant)} exactly when faster queries are
+ * worth its heap. Typed reads are served by a {@link TypeIndex} kept by default, whose compressed
+ * posting lists cost about a byte per event, so {@link #listAll(Class)} never reads events of
+ * other types.
+ * <p>
+ * {@link #store(Event)} can be called from several threads: writes are serialized by a lock,
+ * while reads never take it. Many concurrent producers should go through an
+ * {@link EventIngestor}, which hands the events to a single writer without locking.
+ * <p>
+ * Events can also be appended to named streams, one per aggregate, with an optimistic version
+ * check through {@link #append(String, long, Collection)}: the check only involves the stream
+ * being written, so appends to different streams never conflict. Each append is recorded in a
+ * stream log, from which the streams are rebuilt when the store is reopened.
+ * <p>
+ * Old events can be discarded by an {@link EventRetention}; sequences are never reused, so
+ * queries simply stop returning discarded events and reads start at {@link #firstSequence()}.
+ */
+public class EventStore implements AutoCloseable {
 
-    private List events = new LinkedList();
+    private final EventLog events;
+    private final StreamLog streamLog;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final EventBlockIndex blockIndex = new EventBlockIndex();
+    private volatile TypeIndex typeIndex = new TypeIndex();
+    private final List<EventIndex> indexes = new CopyOnWriteArrayList<>(List.of(blockIndex, typeIndex));
+    private volatile TimeIndex timeIndex;
+    private final Set<EventSubscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Map<String, EventStream> streams = new ConcurrentHashMap<>();
 
-    public void store(Event event) {
-        this.events.add(Objects.requireNonNull(event,"event is required"));
+    public EventStore() {
+        this(new InMemoryEventLog());
+    }
+
+    /**
+     * Creates a store whose streams are only kept on the heap: they start empty even when the
+     * given log recovers events.
+     */
+    public EventStore(EventLog events) {
+        this(events, StreamLog.inMemory());
+    }
+
+    /**
+     * Creates a store recording the appends to its streams into the given stream log, so the
+     * streams survive a restart along with a durable event log. The two logs are forced
+     * separately: stream records referring to events the event log did not recover (lost in a
+     * crash) are truncated, while stream records out of sequence order mean the stream log does
+     * not belong to the event log and fail the opening.
+     *
+     * @throws IllegalStateException when the stream log does not match the event log
+     */
+    public EventStore(EventLog events, StreamLog streamLog) {
+        this.events = Objects.requireNonNull(events, "event log is required");
+        this.streamLog = Objects.requireNonNull(streamLog, "stream log is required");
+        // summarizing the events recovered by persistent logs, without materializing them
+        events.scan(events.firstSequence(), (sequence, event) -> {
+            Class<? extends Event> type = EventCodecs.codecOf(event.typeId()).eventType();
+            blockIndex.index(sequence, event.epochSecond(), type);
+            typeIndex.index(sequence, type);
+            return true;
+        });
+        long[] replayed = {0};
+        streamLog.replay(entry -> {
+            if (entry.firstSequence() < replayed[0]) {
+                throw new IllegalStateException("stream log does not match the event log: append to "
+                        + entry.streamId() + " at sequence " + entry.firstSequence()
+                        + " follows an append ending at " + replayed[0]);
+            }
+            if (entry.endSequence() > events.nextSequence()) {
+                // the events of this append and of the following ones were not recovered
+                return false;
+            }
+            EventStream stream = streams.computeIfAbsent(entry.streamId(), id -> new EventStream());
+            stream.commit(stream.version(), entry.firstSequence(), entry.count());
+            replayed[0] = entry.endSequence();
+            return true;
+        });
+    }
+
+    public long store(Event event) {
+        Objects.requireNonNull(event,"event is required");
+        long sequence;
+        writeLock.lock();
+        try {
+            sequence = this.events.append(event);
+            index(sequence, event);
+        } finally {
+            writeLock.unlock();
+        }
+        notifySubscriptions();
+        return sequence;
+    }
+
+    /**
+     * Stores the events in order as a single operation: the whole batch is validated before
+     * anything is stored, and durable logs commit it at once.
+     *
+     * @return the sequence of the first event of the batch
+     */
+    public long storeAll(Collection<? extends Event> events) {
+        return storeAll(null, batchOf(events));
+    }
+
+    /**
+     * Appends the events to the given stream, provided no other events were appended to it since
+     * the caller read it at the expected version. Versions are checked and claimed per stream
+     * with a compare-and-set, without taking the store lock; a conflicting append fails right
+     * away instead of waiting. The append is recorded in the stream log once the events are
+     * stored; should that fail, the events stay stored but out of the stream, which keeps its version.
+     *
+     * @return the new version of the stream, which is the number of events appended to it
+     * @throws ConcurrencyConflictException when the stream is not at the expected version
+     */
+    public long append(String streamId, long expectedVersion, Collection<? extends Event> events) {
+        Objects.requireNonNull(streamId, "stream id is required");
+        Objects.requireNonNull(events, "events are required");
+        if (expectedVersion < 0) {
+            throw new IllegalArgumentException("expected version cannot be negative");
+        }
+        List<Event> batch = batchOf(events);
+        EventStream stream = streams.computeIfAbsent(streamId, id -> new EventStream());
+        stream.claim(streamId, expectedVersion);
+        long first;
+        try {
+            first = storeAll(streamId, batch);
+        } catch (RuntimeException e) {
+            stream.release(expectedVersion);
+            throw e;
+        }
+        return stream.commit(expectedVersion, first, batch.size());
+    }
+
+    /**
+     * @return the number of events appended to the given stream, {@code 0} for unknown streams
+     */
+    public long streamVersion(String streamId) {
+        Objects.requireNonNull(streamId, "stream id is required");
+        EventStream stream = streams.get(streamId);
+        return stream == null ? 0 : stream.version();
+    }
+
+    /**
+     * @return the events appended to the given stream and still kept by the store, in order
+     */
+    public List<Event> readStream(String streamId) {
+        Objects.requireNonNull(streamId, "stream id is required");
+        EventStream stream = streams.get(streamId);
+        if (stream == null) {
+            return List.of();
+        }
+        return stream.sequences().mapToObj(this::readRetained).filter(Objects::nonNull).toList();
     }
 
     public List listAll() {
-        // returning a copy of the events list to avoid external modifications
-        return new LinkedList(events);
+        // returning an immutable snapshot to avoid external modifications
+        return events.snapshot();
+    }
+
+    /**
+     * @return the events of the given type (subtypes included) in storing order; only its events are
+     * read, unless the {@link TypeIndex} was detached, which leaves the blocks holding events of
+     * that type to be read
+     */
+    public <E extends Event> List<E> listAll(Class<E> type) {
+        Objects.requireNonNull(type, "type is required");
+        TypeIndex exact = typeIndex;
+        LongStream sequences = exact != null
+                ? exact.sequencesOf(type)
+                : blockIndex.candidatesOf(type, events.firstSequence(), events.nextSequence());
+        return sequences
+                .mapToObj(this::readRetained)
+                .filter(Objects::nonNull)
+                .filter(type::isInstance)
+                .map(type::cast)
+                .toList();
+    }
+
+    /**
+     * @return a lazy stream over the events stored so far, read without copying them
+     */
+    public Stream<Event> stream() {
+        return stream(0);
+    }
+
+    /**
+     * @return a lazy stream over the events stored so far, starting at the given sequence
+     */
+    public Stream<Event> stream(long fromSequence) {
+        return LongStream.range(Math.max(requireValidSequence(fromSequence), events.firstSequence()), events.nextSequence())
+                .mapToObj(this::readRetained)
+                .filter(Objects::nonNull);
+    }
+
+    /**
+     * @return a cursor positioned at the given sequence
+     */
+    public EventCursor cursor(long fromSequence) {
+        return new EventCursor(events, requireValidSequence(fromSequence));
+    }
+
+    /**
+     * @return the events that occurred from {@code from} (inclusive) to {@code to} (exclusive),
+     * ordered by their occurred instant
+     */
+    public List<Event> between(Instant from, Instant to) {
+        Objects.requireNonNull(from, "from is required");
+        Objects.requireNonNull(to, "to is required");
+        TimeIndex exact = timeIndex;
+        if (exact != null) {
+            return exact.between(from, to).mapToObj(this::readRetained).filter(Objects::nonNull).toList();
+        }
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        return inTimeOrder(blockIndex.candidatesBetween(from, to, events.firstSequence(), events.nextSequence()),
+                occurredOn -> !occurredOn.isBefore(from) && occurredOn.isBefore(to));
+    }
+
+    /**
+     * @return the events that occurred from {@code from} (inclusive) on, ordered by their occurred instant
+     */
+    public List<Event> since(Instant from) {
+        Objects.requireNonNull(from, "from is required");
+        TimeIndex exact = timeIndex;
+        if (exact != null) {
+            return exact.since(from).mapToObj(this::readRetained).filter(Objects::nonNull).toList();
+        }
+        return inTimeOrder(blockIndex.candidatesBetween(from, Instant.MAX, events.firstSequence(), events.nextSequence()),
+                occurredOn -> !occurredOn.isBefore(from));
+    }
+
+    /**
+     * @return the event stored with the given sequence
+     * @throws IndexOutOfBoundsException when no event is stored with that sequence
+     */
+    public Event read(long sequence) {
+        return events.read(sequence);
+    }
+
+    /**
+     * Keeps the given index up to date with the stored events, starting with the ones already
+     * stored.
+     *
+     * @return the given index
+     */
+    public <I extends EventIndex> I attach(I index) {
+        return attach(index, 0);
+    }
+
+    /**
+     * Keeps the given index up to date with the stored events, starting with the ones already
+     * stored from the given sequence on.
+     *
+     * @return the given index
+     */
+    public <I extends EventIndex> I attach(I index, long fromSequence) {
+        Objects.requireNonNull(index, "index is required");
+        requireValidSequence(fromSequence);
+        writeLock.lock();
+        try {
+            long sequence = Math.max(fromSequence, events.firstSequence());
+            for (long next = events.nextSequence(); sequence < next; sequence++) {
+                index.index(sequence, events.read(sequence));
+            }
+            indexes.add(index);
+            if (index instanceof TimeIndex time) {
+                timeIndex = time;
+            } else if (index instanceof TypeIndex type) {
+                typeIndex = type;
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        return index;
+    }
+
+    /**
+     * Stops updating an index given to {@link #attach(EventIndex)}.
+     */
+    public void detach(EventIndex index) {
+        writeLock.lock();
+        try {
+            indexes.remove(index);
+            if (index == timeIndex) {
+                timeIndex = indexes.stream().filter(TimeIndex.class::isInstance).map(TimeIndex.class::cast).findFirst().orElse(null);
+            } else if (index == typeIndex) {
+                typeIndex = indexes.stream().filter(TypeIndex.class::isInstance).map(TypeIndex.class::cast).findFirst().orElse(null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the sequence of the oldest event still kept, {@code 0} unless events were discarded
+     * by retention
+     */
+    public long firstSequence() {
+        return events.firstSequence();
+    }
+
+    /**
+     * Subscribes to the events stored from the given sequence on, delivering them through the
+     * common {@link ForkJoinPool}.
+     *
+     * @see #subscribe(long, Flow.Subscriber, Executor)
+     */
+    public void subscribe(long fromSequence, Flow.Subscriber<? super Event> subscriber) {
+        subscribe(fromSequence, subscriber, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Subscribes to the events stored from the given sequence on: the stored events are replayed
+     * and then the subscriber keeps receiving new events as they are stored. Deliveries honour the
+     * demand signalled through {@link Flow.Subscription#request(long)}; events are read from the
+     * log when requested, never buffered, so a slow subscriber only falls behind. The subscriber
+     * is completed when the store is closed.
+     */
+    public void subscribe(long fromSequence, Flow.Subscriber<? super Event> subscriber, Executor executor) {
+        Objects.requireNonNull(subscriber, "subscriber is required");
+        Objects.requireNonNull(executor, "executor is required");
+        var subscription = new EventSubscription(events, subscriber, executor, subscriptions,
+                requireValidSequence(fromSequence));
+        subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+    }
+
+    @Override
+    public void close() {
+        subscriptions.forEach(EventSubscription::complete);
+        try {
+            events.close();
+        } finally {
+            streamLog.close();
+        }
+    }
+
+    long nextSequence() {
+        return events.nextSequence();
+    }
+
+
+    /**
+     * Discards the events before the given sequence from the log and the indexes.
+     *
+     * @return the new first sequence, which the log may have rounded down
+     */
+    long truncateBefore(long sequence) {
+        writeLock.lock();
+        try {
+            long first = events.truncateBefore(Math.min(sequence, events.nextSequence()));
+            for (EventIndex index : indexes) {
+                index.evictBefore(first);
+            }
+            return first;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static List<Event> batchOf(Collection<? extends Event> events) {
+        Objects.requireNonNull(events, "events are required");
+        List<Event> batch = new ArrayList<>(events);
+        batch.forEach(event -> Objects.requireNonNull(event, "event is required"));
+        return batch;
+    }
+
+    /**
+     * Stores the batch and, when a stream id is given, records it as appended to that stream.
+     */
+    private long storeAll(String streamId, List<Event> batch) {
+        long first;
+        writeLock.lock();
+        try {
+            if (batch.isEmpty()) {
+                return this.events.nextSequence();
+            }
+            first = this.events.appendAll(batch);
+            for (int i = 0; i < batch.size(); i++) {
+                index(first + i, batch.get(i));
+            }
+            if (streamId != null) {
+                // the stream log is single-writer too, so it is written under the same lock
+                streamLog.append(streamId, first, batch.size());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+        notifySubscriptions();
+        return first;
+    }
+
+    /**
+     * Reads the candidate events whose occurred instant matches, ordered by their occurred instant
+     * and then by sequence.
+     */
+    private List<Event> inTimeOrder(LongStream candidates, Predicate<Instant> occurredOn) {
+        List<Event> selected = new ArrayList<>(candidates
+                .mapToObj(this::readRetained)
+                .filter(Objects::nonNull)
+                .filter(event -> occurredOn.test(event.occurredOn()))
+                .toList());
+        // a stable sort keeps the storing order of events sharing the same instant
+        selected.sort(Comparator.comparing(Event::occurredOn));
+        return Collections.unmodifiableList(selected);
+    }
+
+    private Event readRetained(long sequence) {
+        return readRetained(events, sequence);
+    }
+
+    /**
+     * Reads an event that retention may be discarding concurrently.
+     *
+     * @return the event, or {@code null} when it was discarded
+     */
+    static Event readRetained(EventLog events, long sequence) {
+        if (sequence < events.firstSequence()) {
+            return null;
+        }
+        try {
+            return events.read(sequence);
+        } catch (IndexOutOfBoundsException e) {
+            if (sequence < events.firstSequence()) {
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private static long requireValidSequence(long sequence) {
+        if (sequence < 0) {
+            throw new IllegalArgumentException("sequence cannot be negative");
+        }
+        return sequence;
+    }
+
+    private void notifySubscriptions() {
+        if (!subscriptions.isEmpty()) {
+            subscriptions.forEach(EventSubscription::signal);
+        }
+    }
+
+    private void index(long sequence, Event event) {
+        for (EventIndex index : indexes) {
+            index.index(sequence, event);
+        }
     }
 
 }
@@ -0,0 +1,211 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Client of an {@link EventStoreServer}.
+ * <p>
+ * Requests are pipelined: every call writes its request and returns a future right away, without
+ * waiting for the previous responses. Since the server answers in order, a reader thread completes
+ * the pending futures in the order their requests were written. The client can be shared by many
+ * threads: a request is flushed by the last writer of a burst, so requests written while others
+ * wait for the lock go out together. Every failure, including a request that cannot be built or
+ * sent, completes the returned future exceptionally.
+ */
+public final class EventStoreClient implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private record Pending<T>(CompletableFuture<T> result, Function<ByteBuffer, T> decoder) {
+
+        void complete(ByteBuffer response) {
+            try {
+                if (response.get() == EventProtocol.OK) {
+                    result.complete(decoder.apply(response));
+                } else {
+                    result.completeExceptionally(new IllegalStateException(EventProtocol.readError(response)));
+                }
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final SocketChannel channel;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final EventProtocol.FrameBody request = new EventProtocol.FrameBody(1024);
+    private final Queue<Pending<?>> pending = new ConcurrentLinkedQueue<>();
+    private final Thread reader;
+    private volatile boolean closed;
+
+    public static EventStoreClient connect(InetSocketAddress address) {
+        Objects.requireNonNull(address, "address is required");
+        try {
+            return new EventStoreClient(SocketChannel.open(address));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EventStoreClient(SocketChannel channel) {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        this.reader = Thread.ofVirtual()
+                .name("event-store-client")
+                .start(this::readLoop);
+    }
+
+    /**
+     * @return a future completed with the sequence given to the event by the server
+     */
+    public CompletableFuture<Long> store(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        byte[] encoded;
+        try {
+            // encoded before taking the lock, so writers only serialize on copying the bytes
+            encoded = EventCodecs.encode(event);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return send(ByteBuffer::getLong, body -> {
+            body.writeByte(EventProtocol.STORE);
+            body.write(encoded);
+        });
+    }
+
+    /**
+     * @return a future completed with the sequence given to the first event of the batch
+     */
+    public CompletableFuture<Long> storeAll(List<? extends Event> events) {
+        Objects.requireNonNull(events, "events are required");
+        events.forEach(event -> Objects.requireNonNull(event, "event is required"));
+        return send(ByteBuffer::getLong, body -> {
+            body.writeByte(EventProtocol.STORE_ALL);
+            EventProtocol.writeEvents(body, events);
+        });
+    }
+
+    /**
+     * @return a future completed with at most {@code maxEvents} events stored from the given
+     * sequence on, fewer when they would not fit in a single response frame
+     */
+    public CompletableFuture<List<Event>> read(long fromSequence, int maxEvents) {
+        return send(EventProtocol::readEvents, body -> {
+            body.writeByte(EventProtocol.READ);
+            body.writeLong(fromSequence);
+            body.writeInt(maxEvents);
+        });
+    }
+
+    /**
+     * Closes the connection, failing the requests still waiting for their responses.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+            reader.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failPending(new IllegalStateException("event store client is closed"));
+    }
+
+    @FunctionalInterface
+    private interface RequestWriter {
+        void write(DataOutputStream body) throws IOException;
+    }
+
+    private <T> CompletableFuture<T> send(Function<ByteBuffer, T> decoder, RequestWriter requestWriter) {
+        var result = new CompletableFuture<T>();
+        writeLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("event store client is closed");
+            }
+            request.reset();
+            requestWriter.write(new DataOutputStream(request));
+            if (request.size() > EventProtocol.MAX_FRAME_LENGTH) {
+                throw new IllegalArgumentException("request of " + request.size() + " bytes exceeds the maximum frame length");
+            }
+            // enqueued while holding the lock, so the pending requests keep the writing order
+            pending.add(new Pending<>(result, decoder));
+            EventProtocol.writeFrame(out, request);
+            // left buffered while other writers wait for the lock: the last of them flushes it
+            if (!writeLock.hasQueuedThreads()) {
+                out.flush();
+            }
+        } catch (RuntimeException e) {
+            // the request was rejected before anything was written
+            result.completeExceptionally(e);
+        } catch (IOException e) {
+            // a partially written frame leaves the connection unusable: closing it fails every
+            // pending request, this one included, instead of pairing responses with wrong requests
+            closed = true;
+            result.completeExceptionally(new UncheckedIOException(e));
+            closeChannel();
+        } finally {
+            writeLock.unlock();
+        }
+        return result;
+    }
+
+    private void readLoop() {
+        ByteBuffer response = ByteBuffer.allocate(1024);
+        try {
+            while (true) {
+                response = EventProtocol.readFrame(in, response);
+                Pending<?> request = pending.poll();
+                if (request == null) {
+                    throw new IOException("unexpected response from the server");
+                }
+                request.complete(response);
+            }
+        } catch (IOException e) {
+            writeLock.lock();
+            try {
+                closed = true;
+            } finally {
+                writeLock.unlock();
+            }
+            failPending(new UncheckedIOException("connection to the event store server was lost", e));
+        }
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // already broken, the reader fails the pending requests
+        }
+    }
+
+    private void failPending(RuntimeException cause) {
+        for (Pending<?> request; (request = pending.poll()) != null; ) {
+            request.result().completeExceptionally(cause);
+        }
+    }
+
+}
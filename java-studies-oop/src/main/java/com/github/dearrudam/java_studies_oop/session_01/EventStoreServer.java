@@ -0,0 +1,184 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves an {@link EventStore} to other processes through the {@link EventProtocol}, so several
+ * JVMs on the same host can share one store by means of {@link EventStoreClient}s.
+ * <p>
+ * Each connection is served by its own virtual thread with plain blocking I/O, which the virtual
+ * thread scheduler turns into non-blocking socket operations. Requests of a connection are handled
+ * in order and their responses are buffered, being flushed only once no pipelined request is
+ * waiting, so a burst of requests is answered with few writes.
+ */
+public final class EventStoreServer implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EventStore eventStore;
+    private final ServerSocketChannel serverChannel;
+    private final Set<SocketChannel> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+
+    /**
+     * Starts a server on an ephemeral port of the loopback interface.
+     */
+    public static EventStoreServer start(EventStore eventStore) {
+        return start(eventStore, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    public static EventStoreServer start(EventStore eventStore, InetSocketAddress address) {
+        Objects.requireNonNull(eventStore, "event store is required");
+        Objects.requireNonNull(address, "address is required");
+        try {
+            return new EventStoreServer(eventStore, ServerSocketChannel.open().bind(address));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private EventStoreServer(EventStore eventStore, ServerSocketChannel serverChannel) {
+        this.eventStore = eventStore;
+        this.serverChannel = serverChannel;
+        this.acceptor = Thread.ofVirtual()
+                .name("event-store-server")
+                .start(this::acceptLoop);
+    }
+
+    /**
+     * @return the address the server is listening on
+     */
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones; the {@link EventStore} is left open.
+     */
+    @Override
+    public void close() {
+        try {
+            serverChannel.close();
+            for (SocketChannel connection : connections) {
+                connection.close();
+            }
+            acceptor.join();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acceptLoop() {
+        try {
+            while (true) {
+                SocketChannel connection = serverChannel.accept();
+                connections.add(connection);
+                Thread.ofVirtual()
+                        .name("event-store-connection")
+                        .start(() -> serve(connection));
+            }
+        } catch (ClosedChannelException e) {
+            // the server was closed
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void serve(SocketChannel connection) {
+        try (connection;
+             var in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(connection), BUFFER_SIZE));
+             var out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(connection), BUFFER_SIZE))) {
+            ByteBuffer request = ByteBuffer.allocate(1024);
+            var response = new EventProtocol.FrameBody(1024);
+            while (true) {
+                request = EventProtocol.readFrame(in, request);
+                handle(request, response);
+                EventProtocol.writeFrame(out, response);
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (EOFException | ClosedChannelException e) {
+            // the client disconnected or the server was closed
+        } catch (IOException e) {
+            // dropping the connection, the client fails its pending requests
+        } finally {
+            connections.remove(connection);
+        }
+    }
+
+    private void handle(ByteBuffer request, EventProtocol.FrameBody body) throws IOException {
+        body.reset();
+        var response = new DataOutputStream(body);
+        try {
+            byte operation = request.get();
+            switch (operation) {
+                case EventProtocol.STORE -> {
+                    long sequence = eventStore.store(EventCodecs.decode(request));
+                    response.writeByte(EventProtocol.OK);
+                    response.writeLong(sequence);
+                }
+                case EventProtocol.STORE_ALL -> {
+                    long first = eventStore.storeAll(EventProtocol.readEvents(request));
+                    response.writeByte(EventProtocol.OK);
+                    response.writeLong(first);
+                }
+                case EventProtocol.READ -> {
+                    long fromSequence = request.getLong();
+                    int maxEvents = request.getInt();
+                    List<Event> events = readFitting(fromSequence, maxEvents);
+                    response.writeByte(EventProtocol.OK);
+                    EventProtocol.writeEvents(response, events);
+                }
+                default -> EventProtocol.writeError(response, "unknown operation: " + operation);
+            }
+        } catch (RuntimeException e) {
+            body.reset();
+            EventProtocol.writeError(response, e.getMessage());
+        }
+    }
+
+    /**
+     * @return at most {@code maxEvents} events from the given sequence on, stopping before the
+     * response would exceed the maximum frame length
+     */
+    private List<Event> readFitting(long fromSequence, int maxEvents) {
+        List<Event> events = new ArrayList<>();
+        long bytes = 0;
+        for (Iterator<Event> stored = eventStore.stream(fromSequence).limit(maxEvents).iterator(); stored.hasNext(); ) {
+            Event event = stored.next();
+            bytes += EventCodecs.encodedSize(event);
+            if (bytes > EventProtocol.MAX_READ_BYTES) {
+                break;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+}
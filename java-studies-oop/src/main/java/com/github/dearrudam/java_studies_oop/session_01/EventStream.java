@@ -0,0 +1,60 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Version and event sequences of a stream of the {@link EventStore}.
+ * <p>
+ * The version is the number of events appended to the stream. An append claims the stream by
+ * swapping its version for the complement ({@code ~version}) with a compare-and-set, so at most
+ * one append per stream is in progress and the others fail fast instead of waiting; committing
+ * publishes the sequences of the appended events and then the new version.
+ */
+final class EventStream {
+
+    private final AtomicLong state = new AtomicLong();
+    private final LongPostings sequences = new LongPostings();
+
+    /**
+     * @return the version of the stream, ignoring an append in progress
+     */
+    long version() {
+        long current = state.get();
+        return current < 0 ? ~current : current;
+    }
+
+    /**
+     * @throws ConcurrencyConflictException when the stream is not at the expected version or is
+     *                                      claimed by another append
+     */
+    void claim(String streamId, long expectedVersion) {
+        if (!state.compareAndSet(expectedVersion, ~expectedVersion)) {
+            throw new ConcurrencyConflictException(streamId, expectedVersion, version());
+        }
+    }
+
+    /**
+     * Gives the stream back unchanged after a failed append.
+     */
+    void release(long version) {
+        state.set(version);
+    }
+
+    /**
+     * @return the new version of the stream
+     */
+    long commit(long version, long firstSequence, int count) {
+        for (int i = 0; i < count; i++) {
+            sequences.add(firstSequence + i);
+        }
+        long updated = version + count;
+        state.set(updated);
+        return updated;
+    }
+
+    LongStream sequences() {
+        return sequences.stream();
+    }
+
+}
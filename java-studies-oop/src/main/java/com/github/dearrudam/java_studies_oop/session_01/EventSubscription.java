@@ -0,0 +1,114 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscription created by {@link EventStore#subscribe(long, Flow.Subscriber)}.
+ * <p>
+ * Nothing is buffered for the subscriber: the subscription only remembers the sequence of the
+ * next event to deliver and reads events from the {@link EventLog} while there is demand. Replaying
+ * history and following live events are the same loop, and a slow subscriber simply falls behind
+ * and catches up from storage. Signals are delivered one at a time by the given executor.
+ */
+final class EventSubscription implements Flow.Subscription {
+
+    private final EventLog events;
+    private final Flow.Subscriber<? super Event> subscriber;
+    private final Executor executor;
+    private final Set<EventSubscription> subscriptions;
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicInteger pendingDrains = new AtomicInteger();
+    private long position;
+    private volatile boolean cancelled;
+    private volatile boolean completed;
+    private volatile Throwable failure;
+
+    EventSubscription(EventLog events,
+                      Flow.Subscriber<? super Event> subscriber,
+                      Executor executor,
+                      Set<EventSubscription> subscriptions,
+                      long position) {
+        this.events = events;
+        this.subscriber = subscriber;
+        this.executor = executor;
+        this.subscriptions = subscriptions;
+        this.position = position;
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            failure = new IllegalArgumentException("requested amount must be positive");
+        } else {
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+        }
+        signal();
+    }
+
+    @Override
+    public void cancel() {
+        cancelled = true;
+        subscriptions.remove(this);
+    }
+
+    /**
+     * Completes the subscription once the store is closed.
+     */
+    void complete() {
+        completed = true;
+        signal();
+    }
+
+    /**
+     * Schedules a delivery round, unless one is already running.
+     */
+    void signal() {
+        if (pendingDrains.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            try {
+                deliver();
+            } catch (RuntimeException e) {
+                failure = e;
+                deliver();
+            }
+            missed = pendingDrains.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void deliver() {
+        while (!cancelled) {
+            if (failure != null) {
+                cancel();
+                subscriber.onError(failure);
+                return;
+            }
+            if (completed) {
+                cancel();
+                subscriber.onComplete();
+                return;
+            }
+            if (demand.get() == 0 || position >= events.nextSequence()) {
+                return;
+            }
+            // skipping the events discarded by retention before being delivered
+            position = Math.max(position, events.firstSequence());
+            Event event = EventStore.readRetained(events, position++);
+            if (event == null) {
+                continue;
+            }
+            demand.decrementAndGet();
+            subscriber.onNext(event);
+        }
+    }
+
+}
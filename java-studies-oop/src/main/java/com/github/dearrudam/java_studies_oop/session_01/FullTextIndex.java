@@ -0,0 +1,179 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+/**
+ * Inverted index over the words of {@link MessageEvent#message()}, to be
+ * {@link EventStore#attach(EventIndex) attached} to an {@link EventStore}.
+ * <p>
+ * Messages are split by {@link #tokenize(String)} into lower-cased terms; a term dictionary maps
+ * each term to its {@link TermPostings}, a compressed list of the sequences of the messages
+ * holding it together with the term positions, which also answers phrase queries. Queries only
+ * decode the posting lists of the searched terms, so their cost depends on how common the terms
+ * are, not on how many messages are stored.
+ */
+public final class FullTextIndex implements EventIndex {
+
+    private final Map<String, TermPostings> terms = new ConcurrentHashMap<>();
+    private volatile long firstSequence;
+
+    @Override
+    public void index(long sequence, Event event) {
+        if (!(event instanceof MessageEvent messageEvent)) {
+            return;
+        }
+        List<String> tokens = tokenize(messageEvent.message());
+        Map<String, Positions> positionsByTerm = new HashMap<>();
+        for (int position = 0; position < tokens.size(); position++) {
+            positionsByTerm.computeIfAbsent(tokens.get(position), term -> new Positions()).add(position);
+        }
+        positionsByTerm.forEach((term, positions) ->
+                terms.computeIfAbsent(term, ignored -> new TermPostings())
+                        .add(sequence, positions.values, positions.size));
+    }
+
+    @Override
+    public void evictBefore(long sequence) {
+        firstSequence = sequence;
+        terms.replaceAll((term, postings) -> postings.compactBefore(sequence));
+        terms.values().removeIf(postings -> postings.sizeInBytes() == 0);
+    }
+
+    /**
+     * @return the sequences of the messages holding the given word, in storing order
+     */
+    public LongStream sequencesWithTerm(String term) {
+        Objects.requireNonNull(term, "term is required");
+        List<String> tokens = tokenize(term);
+        if (tokens.size() != 1) {
+            throw new IllegalArgumentException("a single term is required");
+        }
+        return sequencesWithPhrase(tokens);
+    }
+
+    /**
+     * @return the sequences of the messages holding the words of the given phrase next to each
+     * other and in the same order, in storing order
+     */
+    public LongStream sequencesWithPhrase(String phrase) {
+        Objects.requireNonNull(phrase, "phrase is required");
+        return sequencesWithPhrase(tokenize(phrase));
+    }
+
+    /**
+     * @return the number of distinct indexed terms
+     */
+    public int termCount() {
+        return terms.size();
+    }
+
+    /**
+     * Splits the text into lower-cased terms, every run of letters or digits being a term.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean partOfTerm = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (partOfTerm && start < 0) {
+                start = i;
+            } else if (!partOfTerm && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private LongStream sequencesWithPhrase(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return LongStream.empty();
+        }
+        TermPostings[] postings = new TermPostings[tokens.size()];
+        TermPostings.Cursor[] cursors = new TermPostings.Cursor[tokens.size()];
+        for (int i = 0; i < cursors.length; i++) {
+            postings[i] = terms.get(tokens.get(i));
+            if (postings[i] == null) {
+                return LongStream.empty();
+            }
+            cursors[i] = postings[i].cursor();
+        }
+        // cursors in phrase order for the positions, and from the rarest term for the alignment
+        TermPostings.Cursor[] byRarity = new TermPostings.Cursor[cursors.length];
+        Integer[] order = new Integer[cursors.length];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt(i -> postings[i].count()));
+        Arrays.setAll(byRarity, i -> cursors[order[i]]);
+        long first = firstSequence;
+        LongStream.Builder matches = LongStream.builder();
+        for (long sequence = first; advanceTo(byRarity, sequence); sequence = cursors[0].sequence() + 1) {
+            if (isPhrase(cursors)) {
+                matches.add(cursors[0].sequence());
+            }
+        }
+        return matches.build();
+    }
+
+    /**
+     * Moves every cursor to the first sequence, not lower than the given one, shared by all. The
+     * cursors are expected from the rarest term to the most common one, so the rarest term drives
+     * the jumps of the others.
+     *
+     * @return {@code false} when there is no such sequence
+     */
+    private static boolean advanceTo(TermPostings.Cursor[] cursors, long sequence) {
+        long target = sequence;
+        boolean aligned = false;
+        while (!aligned) {
+            aligned = true;
+            for (TermPostings.Cursor cursor : cursors) {
+                if (!cursor.advance(target)) {
+                    return false;
+                }
+                if (cursor.sequence() > target) {
+                    target = cursor.sequence();
+                    aligned = false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPhrase(TermPostings.Cursor[] cursors) {
+        TermPostings.Cursor first = cursors[0];
+        for (int p = 0; p < first.positionCount(); p++) {
+            int position = first.positions()[p];
+            int offset = 1;
+            while (offset < cursors.length && cursors[offset].hasPosition(position + offset)) {
+                offset++;
+            }
+            if (offset == cursors.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Positions {
+
+        private int[] values = new int[2];
+        private int size;
+
+        void add(int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+}
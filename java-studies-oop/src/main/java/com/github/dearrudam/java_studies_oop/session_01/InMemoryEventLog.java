@@ -0,0 +1,69 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.List;
+
+/**
+ * Heap based {@link EventLog}, the default storage of the {@link EventStore}.
+ * <p>
+ * Events are kept in a {@link PersistentVector}: every append publishes a new version that shares
+ * its structure with the previous ones, so {@link #snapshot()} is O(1) and readers never wait for
+ * the writer. {@link #truncateBefore(long)} releases whole chunks of 32 events at a time.
+ */
+public class InMemoryEventLog implements EventLog {
+
+    private volatile PersistentVector<Event> events = PersistentVector.empty();
+
+    @Override
+    public long append(Event event) {
+        PersistentVector<Event> current = events;
+        events = current.append(event);
+        return current.size();
+    }
+
+    /**
+     * Publishes the whole batch at once, so readers see either none or all of its events.
+     */
+    @Override
+    public long appendAll(List<? extends Event> batch) {
+        PersistentVector<Event> current = events;
+        PersistentVector<Event> updated = current;
+        for (Event event : batch) {
+            updated = updated.append(event);
+        }
+        events = updated;
+        return current.size();
+    }
+
+    @Override
+    public Event read(long sequence) {
+        PersistentVector<Event> current = events;
+        if (sequence < current.first() || sequence >= current.size()) {
+            throw new IndexOutOfBoundsException("no event stored with sequence " + sequence);
+        }
+        return current.get((int) sequence);
+    }
+
+    @Override
+    public long nextSequence() {
+        return events.size();
+    }
+
+    @Override
+    public long firstSequence() {
+        return events.first();
+    }
+
+    @Override
+    public long truncateBefore(long sequence) {
+        PersistentVector<Event> current = events;
+        events = current.dropBefore((int) Math.min(sequence, current.size()));
+        return events.first();
+    }
+
+    @Override
+    public List<Event> snapshot() {
+        PersistentVector<Event> current = events;
+        return current.subList(current.first(), current.size());
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+/**
+ * Growable list of primitive longs (typically event sequences) written by a single thread and
+ * read by any number of threads: readers see the values published by the {@code size} volatile
+ * write, without locking.
+ */
+final class LongPostings {
+
+    private volatile long[] values = new long[8];
+    private volatile int size;
+
+    void add(long value) {
+        long[] current = values;
+        int count = size;
+        if (count == current.length) {
+            current = Arrays.copyOf(current, count * 2);
+            values = current;
+        }
+        current[count] = value;
+        size = count + 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return an estimate of the heap used by these postings: the object and its array
+     */
+    long sizeInBytes() {
+        return 16 + 16 + (long) Long.BYTES * values.length;
+    }
+
+    LongStream stream() {
+        int count = size;
+        return Arrays.stream(values, 0, count);
+    }
+
+    /**
+     * @return new postings without the values lower than the given one, or these postings when
+     * most of their values would be kept; readers are expected to skip the stale values, so
+     * compacting is deferred until it halves the postings
+     */
+    LongPostings compactBefore(long value) {
+        long[] current = values;
+        int count = size;
+        int index = Arrays.binarySearch(current, 0, count, value);
+        int dropped = index >= 0 ? index : -index - 1;
+        if (dropped == 0 || dropped < count / 2) {
+            return this;
+        }
+        LongPostings compacted = new LongPostings();
+        compacted.values = Arrays.copyOfRange(current, dropped, dropped + Math.max(count - dropped, 8));
+        compacted.size = count - dropped;
+        return compacted;
+    }
+
+    /**
+     * @return a stream of the values of all the given postings, each one being sorted, in
+     * ascending order
+     */
+    static LongStream merge(LongPostings... postings) {
+        if (postings.length == 1) {
+            return postings[0].stream();
+        }
+        if (postings.length > 4) {
+            // many postings: concatenating and sorting beats merging them pairwise
+            return Arrays.stream(postings)
+                    .flatMapToLong(LongPostings::stream)
+                    .sorted();
+        }
+        long[] merged = new long[0];
+        for (LongPostings posting : postings) {
+            merged = merge(merged, posting.stream().toArray());
+        }
+        return Arrays.stream(merged);
+    }
+
+    private static long[] merge(long[] left, long[] right) {
+        long[] merged = new long[left.length + right.length];
+        int l = 0;
+        int r = 0;
+        int m = 0;
+        while (l < left.length && r < right.length) {
+            merged[m++] = left[l] <= right[r] ? left[l++] : right[r++];
+        }
+        System.arraycopy(left, l, merged, m, left.length - l);
+        System.arraycopy(right, r, merged, m + left.length - l, right.length - r);
+        return merged;
+    }
+
+}
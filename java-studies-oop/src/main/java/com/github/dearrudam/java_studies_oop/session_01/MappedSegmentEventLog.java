@@ -0,0 +1,348 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Persistent {@link EventLog} that appends events into fixed-size memory-mapped segment files.
+ * <p>
+ * Each segment file is named after the sequence of its first event and holds records laid out as
+ * {@code [int length][payload]}, the payload being written by {@link EventCodecs}; a zero length
+ * marks the end of the written area. When a record does not fit in the current segment a new one
+ * is created (rollover), and the directory is forced so the new file survives a crash along with
+ * the appends acknowledged in it. Appending is a plain write into the mapped buffer, and only a sparse
+ * offset index (one entry every {@value #INDEX_INTERVAL} records) is kept on the heap, so the heap
+ * usage does not grow with the stored events. {@link #truncateBefore(long)} deletes whole segments,
+ * never the one being written.
+ */
+public class MappedSegmentEventLog implements EventLog {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int INDEX_INTERVAL = 32;
+    private static final String SEGMENT_SUFFIX = ".segment";
+
+    private final Path directory;
+    private final int segmentSize;
+    private volatile Segment[] segments;
+    private volatile long next;
+
+    public static MappedSegmentEventLog open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    public static MappedSegmentEventLog open(Path directory, int segmentSize) {
+        Objects.requireNonNull(directory, "directory is required");
+        if (segmentSize < 64) {
+            throw new IllegalArgumentException("segment size must be at least 64 bytes");
+        }
+        try {
+            Files.createDirectories(directory);
+            return new MappedSegmentEventLog(directory, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedSegmentEventLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Path[] files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toArray(Path[]::new);
+        }
+        Segment[] recovered = new Segment[files.length];
+        long sequence = 0;
+        for (int i = 0; i < files.length; i++) {
+            // segments are named after their base sequence, the first ones may have been truncated
+            String name = files[i].getFileName().toString();
+            long baseSequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            recovered[i] = Segment.recover(files[i], baseSequence, segmentSize);
+            sequence = baseSequence + recovered[i].count;
+        }
+        this.segments = recovered;
+        this.next = sequence;
+    }
+
+    /**
+     * Writes the event into the mapped segment; the operating system writes it to disk later.
+     */
+    @Override
+    public long append(Event event) {
+        return write(encode(event));
+    }
+
+    /**
+     * Writes the whole batch and then forces the written range to disk once (group commit).
+     */
+    @Override
+    public long appendAll(List<? extends Event> events) {
+        // encoding everything first, so an invalid event rejects the batch before anything is written
+        List<byte[]> payloads = events.stream().map(this::encode).toList();
+        long first = next;
+        int firstSegment = Math.max(segments.length - 1, 0);
+        int firstPosition = segments.length == 0 ? 0 : segments[firstSegment].position;
+        for (byte[] payload : payloads) {
+            write(payload);
+        }
+        Segment[] written = segments;
+        for (int i = firstSegment; i < written.length; i++) {
+            written[i].force(i == firstSegment ? firstPosition : 0);
+        }
+        return first;
+    }
+
+    @Override
+    public Event read(long sequence) {
+        Segment[] current = segments;
+        if (sequence >= next || current.length == 0 || sequence < current[0].baseSequence) {
+            throw new IndexOutOfBoundsException("no event stored with sequence " + sequence);
+        }
+        Segment segment = segmentOf(current, sequence);
+        int offset = segment.offsetOf(sequence - segment.baseSequence);
+        return EventCodecs.decode(segment.buffer.slice(offset + Integer.BYTES, segment.buffer.getInt(offset)));
+    }
+
+    /**
+     * Visits the events from the given sequence on through a single {@link EventFlyweight} that
+     * reads them straight from the mapped segments, without creating event objects.
+     */
+    @Override
+    public void scan(long fromSequence, EventFlyweight.Visitor visitor) {
+        long last = next;
+        Segment[] current = segments;
+        if (current.length == 0 || fromSequence >= last) {
+            return;
+        }
+        fromSequence = Math.max(fromSequence, current[0].baseSequence);
+        EventFlyweight flyweight = new EventFlyweight();
+        Segment segment = segmentOf(current, fromSequence);
+        int offset = segment.offsetOf(fromSequence - segment.baseSequence);
+        for (long sequence = fromSequence; sequence < last; sequence++) {
+            int length;
+            if (offset + Integer.BYTES > segment.capacity() || (length = segment.buffer.getInt(offset)) == 0) {
+                segment = segmentOf(current, sequence);
+                offset = 0;
+                length = segment.buffer.getInt(offset);
+            }
+            if (!visitor.visit(sequence, flyweight.wrap(segment.buffer, offset + Integer.BYTES))) {
+                return;
+            }
+            offset += Integer.BYTES + length;
+        }
+    }
+
+    @Override
+    public long nextSequence() {
+        return next;
+    }
+
+    @Override
+    public long firstSequence() {
+        Segment[] current = segments;
+        return current.length == 0 ? next : current[0].baseSequence;
+    }
+
+    /**
+     * Deletes the segments holding only events before the given sequence.
+     */
+    @Override
+    public long truncateBefore(long sequence) {
+        Segment[] current = segments;
+        int dropped = 0;
+        while (dropped + 1 < current.length && current[dropped + 1].baseSequence <= sequence) {
+            dropped++;
+        }
+        if (dropped > 0) {
+            segments = Arrays.copyOfRange(current, dropped, current.length);
+            for (int i = 0; i < dropped; i++) {
+                current[i].delete();
+            }
+        }
+        return firstSequence();
+    }
+
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private long write(byte[] payload) {
+        long sequence = next;
+        Segment tail = segments.length == 0 ? null : segments[segments.length - 1];
+        if (tail == null || tail.position + Integer.BYTES + payload.length > tail.capacity()) {
+            tail = rollover(sequence);
+        }
+        tail.write(payload);
+        next = sequence + 1;
+        return sequence;
+    }
+
+    private Segment rollover(long baseSequence) {
+        Path file = directory.resolve("%020d%s".formatted(baseSequence, SEGMENT_SUFFIX));
+        try {
+            Segment segment = Segment.create(file, baseSequence, segmentSize);
+            try {
+                forceDirectory(directory);
+            } catch (IOException e) {
+                segment.delete();
+                throw e;
+            }
+            Segment[] current = segments;
+            Segment[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = segment;
+            segments = updated;
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes the creation of a file in the given directory durable, on the platforms where
+     * directories can be opened and forced.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (UnsupportedOperationException | AccessDeniedException e) {
+            // directories cannot be opened or forced on this platform (e.g. Windows)
+        }
+    }
+
+    private static Segment segmentOf(Segment[] segments, long sequence) {
+        int low = 0;
+        int high = segments.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments[middle].baseSequence <= sequence) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return segments[low];
+    }
+
+    private byte[] encode(Event event) {
+        byte[] payload = EventCodecs.encode(event);
+        if (Integer.BYTES + payload.length > segmentSize) {
+            throw new IllegalArgumentException("event does not fit in a segment of " + segmentSize + " bytes");
+        }
+        return payload;
+    }
+
+    private static final class Segment {
+
+        private final Path file;
+        private final long baseSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int[] index = new int[16];
+        private int count;
+        private int position;
+
+        private Segment(Path file, long baseSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.file = file;
+            this.baseSequence = baseSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path file, long baseSequence, int segmentSize) throws IOException {
+            FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(file, baseSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+        }
+
+        static Segment recover(Path file, long baseSequence, int segmentSize) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), segmentSize);
+            Segment segment = new Segment(file, baseSequence, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+            int length;
+            while (segment.position + Integer.BYTES <= segment.capacity()
+                    && (length = segment.buffer.getInt(segment.position)) > 0) {
+                segment.indexRecord();
+                segment.position += Integer.BYTES + length;
+            }
+            return segment;
+        }
+
+        int capacity() {
+            return buffer.capacity();
+        }
+
+        void write(byte[] payload) {
+            // the length is written last, so a record is only visible once its payload is in place
+            buffer.put(position + Integer.BYTES, payload);
+            buffer.putInt(position, payload.length);
+            indexRecord();
+            position += Integer.BYTES + payload.length;
+        }
+
+        int offsetOf(long localSequence) {
+            int offset = index[(int) (localSequence / INDEX_INTERVAL)];
+            for (long skip = localSequence % INDEX_INTERVAL; skip > 0; skip--) {
+                offset += Integer.BYTES + buffer.getInt(offset);
+            }
+            return offset;
+        }
+
+        private void indexRecord() {
+            if (count % INDEX_INTERVAL == 0) {
+                int slot = count / INDEX_INTERVAL;
+                int[] current = index;
+                if (slot == current.length) {
+                    current = Arrays.copyOf(current, current.length * 2);
+                }
+                current[slot] = position;
+                index = current;
+            }
+            count++;
+        }
+
+        void force(int from) {
+            if (position > from) {
+                buffer.force(from, position - from);
+            }
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Closes and deletes the segment file; the mapping stays readable until it is garbage
+         * collected, so concurrent readers are not affected.
+         */
+        void delete() {
+            try {
+                channel.close();
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+}
@@ -6,13 +6,13 @@ import java.util.Optional;
 public record MessageEvent(String message, Instant occurredOn) implements Event {
 
     public MessageEvent(String message) {
-        this(message, Instant.now());
+        this(message, EventClocks.current().now());
     }
 
     public MessageEvent {
         message = Optional.ofNullable(message)
                 .orElseThrow(() -> new IllegalArgumentException("message is required"));
-        occurredOn = Optional.ofNullable(occurredOn).orElseGet(Instant::now);
+        occurredOn = Optional.ofNullable(occurredOn).orElseGet(() -> EventClocks.current().now());
     }
 
 }
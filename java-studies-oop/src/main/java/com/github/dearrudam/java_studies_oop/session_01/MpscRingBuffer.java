@@ -0,0 +1,92 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free queue for many producers and a single consumer.
+ * <p>
+ * Producers claim a slot by advancing the {@code tail} counter with a CAS and then publish the
+ * element by moving the slot sequence forward; the consumer takes elements in claiming order and
+ * hands the slot back to the producers of the next lap.
+ */
+final class MpscRingBuffer<T> {
+
+    private final int mask;
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two greater than one");
+        }
+        this.mask = capacity - 1;
+        this.elements = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            sequences.set(slot, slot);
+        }
+    }
+
+    /**
+     * @return {@code false} when the buffer is full
+     */
+    boolean offer(T element) {
+        while (true) {
+            long position = tail.get();
+            int slot = (int) (position & mask);
+            long sequence = sequences.getAcquire(slot);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements[slot] = element;
+                    sequences.setRelease(slot, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Hands at most {@code limit} elements to the consumer. Must be called by a single thread.
+     *
+     * @return the number of drained elements
+     */
+    @SuppressWarnings("unchecked")
+    int drain(Consumer<? super T> consumer, int limit) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < limit) {
+            int slot = (int) (position & mask);
+            if (sequences.getAcquire(slot) != position + 1) {
+                break;
+            }
+            T element = (T) elements[slot];
+            elements[slot] = null;
+            sequences.setRelease(slot, position + elements.length);
+            consumer.accept(element);
+            head.lazySet(++position);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * @return how many elements were offered so far
+     */
+    long offered() {
+        return tail.get();
+    }
+
+    /**
+     * @return how many elements were drained so far
+     */
+    long drained() {
+        return head.get();
+    }
+
+}
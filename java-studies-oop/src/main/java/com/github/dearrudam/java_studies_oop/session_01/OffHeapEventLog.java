@@ -0,0 +1,130 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * {@link EventLog} keeping the encoded events outside the Java heap, in {@link MemorySegment}s
+ * allocated from a shared {@link Arena}.
+ * <p>
+ * Events are written by {@link EventCodecs} into fixed-size chunks as {@code [int length][payload]}
+ * records; the only on-heap structure is one {@code long} per event locating its record (chunk and
+ * offset), so the garbage collector never has to trace the stored events. An {@link EventStore}
+ * on top of it only adds its sparse block summaries and the byte arrays of its compressed
+ * {@link TypeIndex}, unless a {@link TimeIndex} is attached.
+ * Closing the log frees all its memory at once.
+ */
+public class OffHeapEventLog implements EventLog {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+    private final Arena arena = Arena.ofShared();
+    private final int chunkSize;
+    private volatile MemorySegment[] chunks = new MemorySegment[0];
+    private volatile long[] locations = new long[1024];
+    private volatile long next;
+    private int position;
+
+    public OffHeapEventLog() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    public OffHeapEventLog(int chunkSize) {
+        if (chunkSize < 64) {
+            throw new IllegalArgumentException("chunk size must be at least 64 bytes");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public long append(Event event) {
+        byte[] payload = EventCodecs.encode(event);
+        int recordSize = Integer.BYTES + payload.length;
+        if (recordSize > chunkSize) {
+            throw new IllegalArgumentException("event does not fit in a chunk of " + chunkSize + " bytes");
+        }
+        MemorySegment[] current = chunks;
+        if (current.length == 0 || position + recordSize > chunkSize) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = arena.allocate(chunkSize, Long.BYTES);
+            chunks = current;
+            position = 0;
+        }
+        MemorySegment chunk = current[current.length - 1];
+        chunk.set(ValueLayout.JAVA_INT_UNALIGNED, position, payload.length);
+        MemorySegment.copy(payload, 0, chunk, ValueLayout.JAVA_BYTE, position + Integer.BYTES, payload.length);
+
+        long sequence = next;
+        long[] index = locations;
+        if (sequence == index.length) {
+            index = Arrays.copyOf(index, index.length * 2);
+            locations = index;
+        }
+        index[(int) sequence] = ((long) (current.length - 1) << Integer.SIZE) | position;
+        position += recordSize;
+        next = sequence + 1;
+        return sequence;
+    }
+
+    @Override
+    public Event read(long sequence) {
+        if (sequence < 0 || sequence >= next) {
+            throw new IndexOutOfBoundsException("no event stored with sequence " + sequence);
+        }
+        long location = locations[(int) sequence];
+        MemorySegment chunk = chunks[(int) (location >>> Integer.SIZE)];
+        int offset = (int) location;
+        int length = chunk.get(ValueLayout.JAVA_INT_UNALIGNED, offset);
+        return EventCodecs.decode(chunk.asSlice(offset + Integer.BYTES, length).asByteBuffer());
+    }
+
+    /**
+     * Visits the events from the given sequence on through a single {@link EventFlyweight} reading
+     * them straight from off-heap memory, without creating event objects.
+     */
+    @Override
+    public void scan(long fromSequence, EventFlyweight.Visitor visitor) {
+        long last = next;
+        if (fromSequence < 0 || fromSequence >= last) {
+            return;
+        }
+        EventFlyweight flyweight = new EventFlyweight();
+        long[] index = locations;
+        MemorySegment[] current = chunks;
+        int chunk = -1;
+        ByteBuffer buffer = null;
+        for (long sequence = fromSequence; sequence < last; sequence++) {
+            long location = index[(int) sequence];
+            if ((int) (location >>> Integer.SIZE) != chunk) {
+                chunk = (int) (location >>> Integer.SIZE);
+                buffer = current[chunk].asByteBuffer();
+            }
+            if (!visitor.visit(sequence, flyweight.wrap(buffer, (int) location + Integer.BYTES))) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public long nextSequence() {
+        return next;
+    }
+
+    /**
+     * @return the number of off-heap bytes allocated by this log
+     */
+    public long allocatedBytes() {
+        return (long) chunks.length * chunkSize;
+    }
+
+    @Override
+    public void close() {
+        if (arena.scope().isAlive()) {
+            arena.close();
+        }
+    }
+
+}
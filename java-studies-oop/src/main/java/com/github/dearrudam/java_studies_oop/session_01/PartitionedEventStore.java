@@ -0,0 +1,102 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Event store split into independent shards, one group of shards per concrete event type.
+ * <p>
+ * Each shard is an {@link EventStore} with its own lock, sequences and indexes, so writes to
+ * different shards run in parallel and type-filtered reads only touch the shards of the requested
+ * type. Inside a type, events can be further spread over several partitions by a partition key.
+ * Sequences returned by {@link #store(Event)} are relative to the shard that stored the event.
+ */
+public class PartitionedEventStore implements AutoCloseable {
+
+    private final int partitionsPerType;
+    private final Function<? super Event, ?> partitionKey;
+    private final Function<String, EventLog> logFactory;
+    private final Map<Class<? extends Event>, EventStore[]> shards = new ConcurrentHashMap<>();
+
+    /**
+     * @return a store with one in-memory shard per concrete event type
+     */
+    public static PartitionedEventStore byType() {
+        return new PartitionedEventStore(1, event -> 0, shard -> new InMemoryEventLog());
+    }
+
+    /**
+     * @return a store with {@code partitionsPerType} in-memory shards per concrete event type,
+     * chosen by the hash of the given partition key
+     */
+    public static PartitionedEventStore byTypeAndKey(int partitionsPerType, Function<? super Event, ?> partitionKey) {
+        return new PartitionedEventStore(partitionsPerType, partitionKey, shard -> new InMemoryEventLog());
+    }
+
+    /**
+     * @param logFactory creates the log of a shard given its name, {@code <event type>-<partition>}
+     */
+    public PartitionedEventStore(int partitionsPerType,
+                                 Function<? super Event, ?> partitionKey,
+                                 Function<String, EventLog> logFactory) {
+        if (partitionsPerType < 1) {
+            throw new IllegalArgumentException("at least one partition per type is required");
+        }
+        this.partitionsPerType = partitionsPerType;
+        this.partitionKey = Objects.requireNonNull(partitionKey, "partition key is required");
+        this.logFactory = Objects.requireNonNull(logFactory, "log factory is required");
+    }
+
+    /**
+     * @return the sequence of the event inside its shard
+     */
+    public long store(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        EventStore[] partitions = shards.computeIfAbsent(event.getClass(), this::createShards);
+        int partition = partitionsPerType == 1
+                ? 0
+                : Math.floorMod(Objects.hashCode(partitionKey.apply(event)), partitionsPerType);
+        return partitions[partition].store(event);
+    }
+
+    /**
+     * @return a lazy stream over the events of the given type (subtypes included), reading only
+     * their shards; events are ordered by sequence inside each shard
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Event> Stream<E> stream(Class<E> type) {
+        Objects.requireNonNull(type, "type is required");
+        return shards.entrySet()
+                .stream()
+                .filter(entry -> type.isAssignableFrom(entry.getKey()))
+                .flatMap(entry -> Arrays.stream(entry.getValue()))
+                .flatMap(EventStore::stream)
+                .map(event -> (E) event);
+    }
+
+    public <E extends Event> List<E> listAll(Class<E> type) {
+        return stream(type).toList();
+    }
+
+    @Override
+    public void close() {
+        shards.values()
+                .stream()
+                .flatMap(Arrays::stream)
+                .forEach(EventStore::close);
+    }
+
+    private EventStore[] createShards(Class<? extends Event> type) {
+        EventStore[] partitions = new EventStore[partitionsPerType];
+        for (int partition = 0; partition < partitionsPerType; partition++) {
+            partitions[partition] = new EventStore(logFactory.apply(type.getName() + "-" + partition));
+        }
+        return partitions;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list backed by a bit-partitioned trie of 32-wide nodes.
+ * <p>
+ * {@link #append(Object)} returns a new vector that shares every untouched node with the
+ * original one, copying only the path to the appended element (at most log<sub>32</sub> n
+ * small arrays), so each version is a cheap, independent snapshot. The last elements are kept
+ * in a tail array that is pushed into the trie once full.
+ * <p>
+ * {@link #dropBefore(int)} releases the leading leaves (chunks of 32 elements) without renumbering
+ * the remaining elements: indexes before {@link #first()} can no longer be read.
+ */
+final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, BITS, new Object[0], new Object[0]);
+
+    private final int first;
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int first, int size, int shift, Object[] root, Object[] tail) {
+        this.first = first;
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    PersistentVector<E> append(E element) {
+        if (size == Integer.MAX_VALUE) {
+            throw new IllegalStateException("vector is full");
+        }
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(first, size + 1, shift, root, newTail);
+        }
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[]{root, newPath(shift, tail)};
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root);
+        }
+        return new PersistentVector<>(first, size + 1, newShift, newRoot, new Object[]{element});
+    }
+
+    /**
+     * @return a vector without the leaves entirely before {@code index}, so their elements become
+     * garbage once no older version references them; the cut is rounded down to a leaf boundary
+     */
+    PersistentVector<E> dropBefore(int index) {
+        int cut = Math.min(index, size) & ~MASK;
+        if (cut <= first) {
+            return this;
+        }
+        return new PersistentVector<>(cut, size, shift, drop(shift, root, 0, cut), tail);
+    }
+
+    /**
+     * @return the index of the first element that can still be read
+     */
+    int first() {
+        return first;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        return (E) leafOf(index)[index & MASK];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private Object[] leafOf(int index) {
+        if (index < first || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] pushTail(int level, Object[] parent) {
+        int child = ((size - 1) >>> level) & MASK;
+        Object[] node = Arrays.copyOf(parent, Math.max(parent.length, child + 1));
+        if (level == BITS) {
+            node[child] = tail;
+        } else if (child < parent.length && parent[child] != null) {
+            node[child] = pushTail(level - BITS, (Object[]) parent[child]);
+        } else {
+            node[child] = newPath(level - BITS, tail);
+        }
+        return node;
+    }
+
+    private static Object[] drop(int level, Object[] parent, long base, int cut) {
+        Object[] node = parent.clone();
+        long span = 1L << level;
+        for (int child = 0; child < node.length; child++) {
+            long childBase = base + child * span;
+            if (childBase + span <= cut) {
+                node[child] = null;
+            } else {
+                if (childBase < cut && level > BITS && node[child] != null) {
+                    node[child] = drop(level - BITS, (Object[]) node[child], childBase, cut);
+                }
+                break;
+            }
+        }
+        return node;
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        return level == 0 ? node : new Object[]{newPath(level - BITS, node)};
+    }
+
+}
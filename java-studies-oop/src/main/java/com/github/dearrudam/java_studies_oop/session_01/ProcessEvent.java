@@ -1,6 +1,7 @@
 package com.github.dearrudam.java_studies_oop.session_01;
 
 import java.time.Instant;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
 
@@ -10,10 +11,14 @@ public class ProcessEvent implements Event {
     private final Instant occurredOn;
 
     public ProcessEvent(String command) {
+        this(command, EventClocks.current().now());
+    }
+
+    public ProcessEvent(String command, Instant occurredOn) {
         this.command = Optional.ofNullable(command)
                 .filter(Predicate.not(String::isBlank))
                 .orElseThrow(()->new IllegalArgumentException("valid command is required"));
-        this.occurredOn = Instant.now();
+        this.occurredOn = Optional.ofNullable(occurredOn).orElseGet(() -> EventClocks.current().now());
     }
 
     public String command() {
@@ -24,6 +29,18 @@ public class ProcessEvent implements Event {
         return occurredOn;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ProcessEvent that
+                && command.equals(that.command)
+                && occurredOn.equals(that.occurredOn);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(command, occurredOn);
+    }
+
     @Override
     public String toString() {
         return "ProcessEvent{" +
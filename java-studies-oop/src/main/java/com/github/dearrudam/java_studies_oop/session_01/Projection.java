@@ -0,0 +1,68 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Definition of a materialized view over the stored events: an initial state and the fold
+ * functions applied to it, registered per event type.
+ * <p>
+ * Definitions are immutable, {@link #when(Class, BiFunction)} returns a new one. Each event is
+ * folded by the first registration matching its type, events of other types leave the state
+ * untouched. Fold functions should return new states instead of changing the given ones, since
+ * states are checkpointed while the projection keeps running. Projections are run by
+ * {@link RunningProjection#start(EventStore, Projection, CheckpointStore)}.
+ *
+ * @param <S> the type of the projected state
+ */
+public final class Projection<S> {
+
+    private record Fold<S, E extends Event>(Class<E> type, BiFunction<S, ? super E, ? extends S> function) {
+
+        S apply(S state, Event event) {
+            return function.apply(state, type.cast(event));
+        }
+    }
+
+    private final S initialState;
+    private final List<Fold<S, ?>> folds;
+
+    private Projection(S initialState, List<Fold<S, ?>> folds) {
+        this.initialState = initialState;
+        this.folds = folds;
+    }
+
+    public static <S> Projection<S> startingWith(S initialState) {
+        return new Projection<>(Objects.requireNonNull(initialState, "initial state is required"), List.of());
+    }
+
+    /**
+     * @return a projection that also folds the events of the given type with the given function
+     */
+    public <E extends Event> Projection<S> when(Class<E> type, BiFunction<S, ? super E, ? extends S> fold) {
+        Objects.requireNonNull(type, "type is required");
+        Objects.requireNonNull(fold, "fold is required");
+        List<Fold<S, ?>> updated = new ArrayList<>(folds);
+        updated.add(new Fold<>(type, fold));
+        return new Projection<>(initialState, List.copyOf(updated));
+    }
+
+    public S initialState() {
+        return initialState;
+    }
+
+    /**
+     * @return the state after folding the given event into the given state
+     */
+    public S apply(S state, Event event) {
+        for (Fold<S, ?> fold : folds) {
+            if (fold.type().isInstance(event)) {
+                return Objects.requireNonNull(fold.apply(state, event), "fold must return a state");
+            }
+        }
+        return state;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Limits enforced by an {@link EventRetention}: the oldest events are discarded while any of them
+ * is exceeded.
+ *
+ * @param maxAge    how long after their {@link Event#occurredOn()} events are kept, {@code null}
+ *                  when they never expire
+ * @param maxEvents how many events are kept
+ * @param maxBytes  how many bytes of {@link EventCodecs encoded} events are kept
+ */
+public record RetentionPolicy(Duration maxAge, long maxEvents, long maxBytes) {
+
+    public RetentionPolicy {
+        if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+            throw new IllegalArgumentException("max age must be positive");
+        }
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("max events must be positive");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("max bytes must be positive");
+        }
+    }
+
+    /**
+     * @return a policy keeping every event, to be narrowed with the {@code with} methods
+     */
+    public static RetentionPolicy unbounded() {
+        return new RetentionPolicy(null, Long.MAX_VALUE, Long.MAX_VALUE);
+    }
+
+    public RetentionPolicy withMaxAge(Duration maxAge) {
+        return new RetentionPolicy(Objects.requireNonNull(maxAge, "max age is required"), maxEvents, maxBytes);
+    }
+
+    public RetentionPolicy withMaxEvents(long maxEvents) {
+        return new RetentionPolicy(maxAge, maxEvents, maxBytes);
+    }
+
+    public RetentionPolicy withMaxBytes(long maxBytes) {
+        return new RetentionPolicy(maxAge, maxEvents, maxBytes);
+    }
+
+}
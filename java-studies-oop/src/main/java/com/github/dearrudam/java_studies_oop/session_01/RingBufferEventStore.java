@@ -0,0 +1,163 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed-capacity store keeping only the most recent events, for telemetry-like uses where old
+ * events lose their value.
+ * <p>
+ * The slots are preallocated when the store is created and reused in circle, so storing an event
+ * allocates nothing. When the store is full the {@link OverflowPolicy} decides what happens to the
+ * new event. Writes are serialized by a lock, while {@link #snapshot()} never takes it: every slot
+ * records the sequence of the event it holds, and a copied event is only kept when that sequence
+ * did not change during the copy, so events overwritten meanwhile are left out of the snapshot.
+ */
+public final class RingBufferEventStore {
+
+    /**
+     * What {@link #store(Event)} does when the store is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Discards the oldest event to make room for the new one.
+         */
+        OVERWRITE_OLDEST,
+        /**
+         * Discards the new event, returning {@link #DROPPED}.
+         */
+        DROP_NEWEST,
+        /**
+         * Blocks the producer until {@link #poll()} makes room.
+         */
+        BLOCK
+    }
+
+    /**
+     * Returned by {@link #store(Event)} when the event was not stored.
+     */
+    public static final long DROPPED = -1;
+
+    private final int capacity;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicReferenceArray<Event> slots;
+    // sequence of the event held by each slot, -1 while the slot is being written
+    private final AtomicLongArray sequences;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Condition notFull = writeLock.newCondition();
+    private volatile long first;
+    private volatile long next;
+
+    public RingBufferEventStore(int capacity, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy, "overflow policy is required");
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int slot = 0; slot < capacity; slot++) {
+            sequences.set(slot, -1);
+        }
+    }
+
+    /**
+     * @return the sequence given to the event, or {@link #DROPPED} when the store is full and the
+     * policy is {@link OverflowPolicy#DROP_NEWEST}, or when a producer blocked by
+     * {@link OverflowPolicy#BLOCK} is interrupted (its interrupt status is kept)
+     */
+    public long store(Event event) {
+        Objects.requireNonNull(event, "event is required");
+        writeLock.lock();
+        try {
+            while (next - first == capacity) {
+                switch (overflowPolicy) {
+                    case OVERWRITE_OLDEST -> first++;
+                    case DROP_NEWEST -> {
+                        return DROPPED;
+                    }
+                    case BLOCK -> {
+                        try {
+                            notFull.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return DROPPED;
+                        }
+                    }
+                }
+            }
+            long sequence = next;
+            int slot = slotOf(sequence);
+            sequences.set(slot, -1);
+            slots.set(slot, event);
+            sequences.set(slot, sequence);
+            next = sequence + 1;
+            return sequence;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes the oldest event, making room for a new one.
+     */
+    public Optional<Event> poll() {
+        writeLock.lock();
+        try {
+            long sequence = first;
+            if (sequence == next) {
+                return Optional.empty();
+            }
+            int slot = slotOf(sequence);
+            Event event = slots.get(slot);
+            sequences.set(slot, -1);
+            slots.set(slot, null);
+            first = sequence + 1;
+            notFull.signal();
+            return Optional.of(event);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return an immutable copy of the current window, oldest event first, taken without blocking
+     * the producers
+     */
+    public List<Event> snapshot() {
+        long to = next;
+        long from = Math.max(first, to - capacity);
+        List<Event> window = new ArrayList<>((int) Math.max(to - from, 0));
+        for (long sequence = from; sequence < to; sequence++) {
+            int slot = slotOf(sequence);
+            if (sequences.get(slot) == sequence) {
+                Event event = slots.get(slot);
+                if (sequences.get(slot) == sequence) {
+                    window.add(event);
+                }
+            }
+        }
+        return Collections.unmodifiableList(window);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        long to = next;
+        return (int) Math.max(to - Math.max(first, to - capacity), 0);
+    }
+
+    private int slotOf(long sequence) {
+        return (int) (sequence % capacity);
+    }
+
+}
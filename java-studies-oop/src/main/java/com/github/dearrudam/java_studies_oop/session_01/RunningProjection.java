@@ -0,0 +1,164 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link Projection} kept up to date by an {@link EventStore}.
+ * <p>
+ * On start the last {@link Checkpoint} is loaded and only the events stored after it are replayed;
+ * from then on the store folds every new event into the state as it is stored, through the
+ * {@link EventIndex} hook. Every {@code checkpointInterval} events the current checkpoint is handed
+ * to a daemon thread that saves it, so the writers never wait for the checkpoint store, and
+ * {@link #close()} saves the final one. A failing fold stops the projection: the store keeps
+ * working and {@link #state()} reports the failure. A failing save is reported by the next
+ * {@link #checkpoint()} and by {@link #close()}, since a restart would resume from an older
+ * checkpoint.
+ *
+ * @param <S> the type of the projected state
+ */
+public final class RunningProjection<S> implements EventIndex, AutoCloseable {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+
+    private final EventStore store;
+    private final Projection<S> projection;
+    private final CheckpointStore<S> checkpoints;
+    private final int checkpointInterval;
+    private final ExecutorService saver;
+    private final AtomicReference<Checkpoint<S>> pending = new AtomicReference<>();
+    private volatile Checkpoint<S> current;
+    private volatile RuntimeException failure;
+    private volatile RuntimeException saveFailure;
+    private int sinceCheckpoint;
+
+    public static <S> RunningProjection<S> start(EventStore store, Projection<S> projection, CheckpointStore<S> checkpoints) {
+        return start(store, projection, checkpoints, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    public static <S> RunningProjection<S> start(EventStore store, Projection<S> projection, CheckpointStore<S> checkpoints,
+                                                 int checkpointInterval) {
+        Objects.requireNonNull(store, "event store is required");
+        Objects.requireNonNull(projection, "projection is required");
+        Objects.requireNonNull(checkpoints, "checkpoint store is required");
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("checkpoint interval must be positive");
+        }
+        RunningProjection<S> running = new RunningProjection<>(store, projection, checkpoints, checkpointInterval);
+        return store.attach(running, running.current.nextSequence());
+    }
+
+    private RunningProjection(EventStore store, Projection<S> projection, CheckpointStore<S> checkpoints, int checkpointInterval) {
+        this.store = store;
+        this.projection = projection;
+        this.checkpoints = checkpoints;
+        this.checkpointInterval = checkpointInterval;
+        this.current = checkpoints.load().orElseGet(() -> Checkpoint.initial(projection.initialState()));
+        this.saver = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+                .name("projection-checkpoint")
+                .daemon()
+                .factory());
+    }
+
+    /**
+     * Folds the stored event into the state; called by the store, one event at a time.
+     */
+    @Override
+    public void index(long sequence, Event event) {
+        Checkpoint<S> last = current;
+        if (failure != null || sequence <= last.sequence()) {
+            return;
+        }
+        try {
+            current = new Checkpoint<>(sequence, projection.apply(last.state(), event));
+        } catch (RuntimeException e) {
+            failure = e;
+            store.detach(this);
+            return;
+        }
+        if (++sinceCheckpoint >= checkpointInterval) {
+            sinceCheckpoint = 0;
+            if (saveFailure == null && pending.getAndSet(current) == null) {
+                saver.execute(this::savePending);
+            }
+        }
+    }
+
+    /**
+     * @return the state with every event stored so far folded into it
+     */
+    public S state() {
+        return checkpoint().state();
+    }
+
+    /**
+     * @return the sequence of the last event folded into the state, {@code -1} when none was
+     */
+    public long lastSequence() {
+        return checkpoint().sequence();
+    }
+
+    /**
+     * @throws IllegalStateException when the projection failed or a checkpoint could not be saved
+     */
+    public Checkpoint<S> checkpoint() {
+        if (failure != null) {
+            throw new IllegalStateException("projection failed", failure);
+        }
+        ensureSaved();
+        return current;
+    }
+
+    /**
+     * Stops following the store and saves the last checkpoint, unless the projection failed.
+     *
+     * @throws IllegalStateException when an earlier checkpoint could not be saved, even if the
+     *                               last one was
+     */
+    @Override
+    public void close() {
+        store.detach(this);
+        saver.shutdown();
+        try {
+            if (!saver.awaitTermination(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("checkpoint saving did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while saving checkpoints", e);
+        }
+        if (failure == null) {
+            try {
+                checkpoints.save(current);
+            } catch (RuntimeException e) {
+                if (saveFailure != null) {
+                    e.addSuppressed(saveFailure);
+                }
+                throw e;
+            }
+        }
+        ensureSaved();
+    }
+
+    /**
+     * Saves the pending checkpoint on the saver thread; a failure is kept, so it is reported
+     * instead of being lost with the task.
+     */
+    private void savePending() {
+        try {
+            checkpoints.save(pending.getAndSet(null));
+        } catch (RuntimeException e) {
+            saveFailure = e;
+        }
+    }
+
+    private void ensureSaved() {
+        if (saveFailure != null) {
+            throw new IllegalStateException("checkpoint saving failed", saveFailure);
+        }
+    }
+
+}
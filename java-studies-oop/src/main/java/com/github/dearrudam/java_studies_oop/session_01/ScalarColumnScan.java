@@ -0,0 +1,48 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+/**
+ * Plain loop implementation of {@link ColumnScan}.
+ */
+final class ScalarColumnScan implements ColumnScan {
+
+    static final ScalarColumnScan INSTANCE = new ScalarColumnScan();
+
+    private ScalarColumnScan() {
+    }
+
+    @Override
+    public void selectTime(long[] epochSeconds, int[] nanos, int size,
+                           long fromSecond, int fromNano, long toSecond, int toNano,
+                           long[] words) {
+        selectTime(epochSeconds, nanos, 0, size, fromSecond, fromNano, toSecond, toNano, words);
+    }
+
+    @Override
+    public void selectType(byte[] typeIds, int size, byte typeId, long[] words) {
+        selectType(typeIds, 0, size, typeId, words);
+    }
+
+    static void selectTime(long[] epochSeconds, int[] nanos, int from, int to,
+                           long fromSecond, int fromNano, long toSecond, int toNano,
+                           long[] words) {
+        for (int i = from; i < to; i++) {
+            if (inRange(epochSeconds[i], nanos[i], fromSecond, fromNano, toSecond, toNano)) {
+                words[i >>> 6] |= 1L << i;
+            }
+        }
+    }
+
+    static boolean inRange(long second, int nano, long fromSecond, int fromNano, long toSecond, int toNano) {
+        return (second > fromSecond || (second == fromSecond && nano >= fromNano))
+                && (second < toSecond || (second == toSecond && nano < toNano));
+    }
+
+    static void selectType(byte[] typeIds, int from, int to, byte typeId, long[] words) {
+        for (int i = from; i < to; i++) {
+            if (typeIds[i] != typeId) {
+                words[i >>> 6] &= ~(1L << i);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,198 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Records the appends to the streams of an {@link EventStore}, so the membership and the version
+ * of its streams are rebuilt when the store is reopened.
+ * <p>
+ * The file holds one record per append, laid out as
+ * {@code [int length][int crc32c][long first sequence][int count][stream id]}, where the length
+ * and the CRC32C checksum cover the body after them and the stream id is UTF-8. The format is only
+ * known to this class: records are not {@link Event}s and never reach the {@link EventLog}. When
+ * the file is opened, everything after the first incomplete or corrupted record (a torn tail left
+ * by a crash) is truncated. Each record is forced to disk before the append returns.
+ */
+public final class StreamLog implements AutoCloseable {
+
+    /**
+     * An append of {@code count} events stored with consecutive sequences from {@code firstSequence}.
+     */
+    record Entry(String streamId, long firstSequence, int count) {
+
+        long endSequence() {
+            return firstSequence + count;
+        }
+    }
+
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int FIXED_BODY_SIZE = Long.BYTES + Integer.BYTES;
+
+    private final FileChannel channel;
+    private final List<Entry> recovered = new ArrayList<>();
+    private final List<Long> recoveredPositions = new ArrayList<>();
+    private long size;
+
+    /**
+     * @return a log keeping nothing, for stores whose streams only live on the heap
+     */
+    public static StreamLog inMemory() {
+        return new StreamLog(null);
+    }
+
+    /**
+     * @return a log written to the given file, recovering the records it already holds
+     */
+    public static StreamLog open(Path file) {
+        Objects.requireNonNull(file, "file is required");
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                StreamLog log = new StreamLog(channel);
+                log.recover();
+                return log;
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private StreamLog(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Hands the records found when the log was opened to the given predicate, in append order. The
+     * first rejected record is truncated along with the ones after it, and the recovered records
+     * are released; later calls see none.
+     */
+    void replay(Predicate<Entry> accept) {
+        int kept = 0;
+        while (kept < recovered.size() && accept.test(recovered.get(kept))) {
+            kept++;
+        }
+        if (kept < recovered.size()) {
+            long position = recoveredPositions.get(kept);
+            try {
+                channel.truncate(position);
+                channel.force(true);
+                channel.position(position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            size = position;
+        }
+        recovered.clear();
+        recoveredPositions.clear();
+    }
+
+    void append(String streamId, long firstSequence, int count) {
+        if (channel == null) {
+            return;
+        }
+        byte[] id = streamId.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(FIXED_BODY_SIZE + id.length)
+                .putLong(firstSequence)
+                .putInt(count)
+                .put(id)
+                .flip();
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(body.remaining())
+                .putInt((int) crc.getValue())
+                .flip();
+        try {
+            ByteBuffer[] record = {header, body};
+            long expected = header.remaining() + body.remaining();
+            long written = 0;
+            while (written < expected) {
+                written += channel.write(record);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // leaving no torn record behind for the next append to follow
+            try {
+                channel.truncate(size);
+                channel.position(size);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw new UncheckedIOException(e);
+        }
+        size += header.limit() + body.limit();
+    }
+
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_SIZE <= fileSize) {
+            ByteBuffer header = readFully(position, HEADER_SIZE);
+            int length = header.getInt(0);
+            if (length < FIXED_BODY_SIZE || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            ByteBuffer body = readFully(position + HEADER_SIZE, length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != header.getInt(Integer.BYTES)) {
+                break;
+            }
+            long firstSequence = body.getLong();
+            int count = body.getInt();
+            if (firstSequence < 0 || count <= 0) {
+                throw new IllegalStateException("corrupted stream log: record at position " + position
+                        + " holds " + count + " events from sequence " + firstSequence);
+            }
+            recovered.add(new Entry(StandardCharsets.UTF_8.decode(body).toString(), firstSequence, count));
+            recoveredPositions.add(position);
+            position += HEADER_SIZE + length;
+        }
+        if (position < fileSize) {
+            // dropping the torn tail left by an interrupted write
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        this.size = position;
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of file at position " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Arrays;
+
+/**
+ * Compressed posting list of a term: the sequences of the events holding it and, for each one,
+ * the positions where the term occurs.
+ * <p>
+ * Entries are appended in ascending sequence order as {@code [sequence delta][position count]
+ * [position deltas...]}, every number being a varint, so small gaps take a single byte. A skip
+ * entry every {@value #SKIP_INTERVAL} entries lets cursors jump over whole blocks. Like
+ * {@link LongPostings}, it is written by a single thread and read by any number of threads through
+ * {@link #cursor()}, which sees the entries published by the {@code length} volatile write.
+ */
+final class TermPostings {
+
+    private static final int SKIP_INTERVAL = 64;
+
+    private volatile byte[] bytes = new byte[16];
+    private volatile int length;
+    // per skip entry: the first sequence of the block, the sequence before it and its offset
+    private volatile long[] skips = new long[0];
+    private volatile int skipCount;
+    private volatile int count;
+    private long lastSequence = -1;
+
+    void add(long sequence, int[] positions, int positionCount) {
+        byte[] current = bytes;
+        int position = length;
+        int required = position + (2 + positionCount) * 10;
+        if (required > current.length) {
+            current = Arrays.copyOf(current, Math.max(required, current.length * 2));
+            bytes = current;
+        }
+        if (count % SKIP_INTERVAL == 0) {
+            addSkip(sequence, position);
+        }
+        position = writeVarLong(current, position, sequence - lastSequence);
+        position = writeVarLong(current, position, positionCount);
+        int previous = 0;
+        for (int i = 0; i < positionCount; i++) {
+            position = writeVarLong(current, position, positions[i] - previous);
+            previous = positions[i];
+        }
+        lastSequence = sequence;
+        count++;
+        length = position;
+    }
+
+    /**
+     * @return the number of events holding the term
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * @return the number of bytes used by the encoded entries
+     */
+    int sizeInBytes() {
+        return length;
+    }
+
+    Cursor cursor() {
+        int written = length;
+        int skipped = skipCount;
+        return new Cursor(bytes, written, skips, skipped);
+    }
+
+    /**
+     * @return new postings without the entries before the given sequence, or these postings when
+     * the dropped entries would take less than half of them
+     */
+    TermPostings compactBefore(long sequence) {
+        Cursor cursor = cursor();
+        int keptFrom = 0;
+        while (cursor.next() && cursor.sequence() < sequence) {
+            keptFrom = cursor.offset;
+        }
+        if (keptFrom == 0 || keptFrom < length / 2) {
+            return this;
+        }
+        TermPostings compacted = new TermPostings();
+        cursor = cursor();
+        while (cursor.next()) {
+            if (cursor.sequence() >= sequence) {
+                compacted.add(cursor.sequence(), cursor.positions(), cursor.positionCount());
+            }
+        }
+        return compacted;
+    }
+
+    private void addSkip(long sequence, int offset) {
+        int slot = count / SKIP_INTERVAL * 3;
+        long[] current = skips;
+        if (slot == current.length) {
+            current = Arrays.copyOf(current, Math.max(current.length * 2, 3 * 4));
+        }
+        current[slot] = sequence;
+        current[slot + 1] = lastSequence;
+        current[slot + 2] = offset;
+        skips = current;
+        skipCount = slot / 3 + 1;
+    }
+
+    private static int writeVarLong(byte[] target, int position, long value) {
+        while ((value & ~0x7FL) != 0) {
+            target[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[position++] = (byte) value;
+        return position;
+    }
+
+    /**
+     * Decodes the entries one at a time, reusing its positions array.
+     */
+    static final class Cursor {
+
+        private final byte[] bytes;
+        private final int length;
+        private final long[] skips;
+        private final int skipCount;
+        private int nextSkip;
+        private int offset;
+        private long sequence = -1;
+        private int[] positions = new int[4];
+        private int positionCount;
+
+        private Cursor(byte[] bytes, int length, long[] skips, int skipCount) {
+            this.bytes = bytes;
+            this.length = length;
+            this.skips = skips;
+            this.skipCount = skipCount;
+        }
+
+        /**
+         * Moves to the first entry whose sequence is not lower than the given one, jumping over
+         * the blocks that end before it.
+         *
+         * @return {@code false} when there is no such entry
+         */
+        boolean advance(long target) {
+            if (sequence >= target) {
+                return true;
+            }
+            // skips are visited once per cursor, and skips of entries written after the cursor was
+            // created are ignored
+            int block = -1;
+            while (nextSkip < skipCount && skips[nextSkip * 3] <= target && skips[nextSkip * 3 + 2] < length) {
+                block = nextSkip++;
+            }
+            if (block >= 0 && skips[block * 3 + 2] > offset) {
+                sequence = skips[block * 3 + 1];
+                offset = (int) skips[block * 3 + 2];
+            }
+            while (sequence < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return {@code false} once every entry was read
+         */
+        boolean next() {
+            if (offset >= length) {
+                return false;
+            }
+            sequence += readVarLong();
+            positionCount = (int) readVarLong();
+            if (positionCount > positions.length) {
+                positions = new int[Math.max(positionCount, positions.length * 2)];
+            }
+            int position = 0;
+            for (int i = 0; i < positionCount; i++) {
+                position += (int) readVarLong();
+                positions[i] = position;
+            }
+            return true;
+        }
+
+        long sequence() {
+            return sequence;
+        }
+
+        int[] positions() {
+            return positions;
+        }
+
+        int positionCount() {
+            return positionCount;
+        }
+
+        boolean hasPosition(int position) {
+            return Arrays.binarySearch(positions, 0, positionCount, position) >= 0;
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[offset++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.LongStream;
+
+/**
+ * Sorted index of the stored events by {@link Event#occurredOn()}.
+ * <p>
+ * Entries are ordered by the occurred instant and then by sequence, so events sharing the same
+ * instant are kept in storing order. Range lookups cost O(log n + k), at the price of a skip list
+ * node per event on the heap; the index is only kept when attached with
+ * {@link EventStore#attach(EventIndex)}.
+ */
+public final class TimeIndex implements EventIndex {
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+    // the same entries in storing order, only touched by the writer
+    private final Deque<Entry> bySequence = new ArrayDeque<>();
+
+    @Override
+    public void index(long sequence, Event event) {
+        Instant occurredOn = event.occurredOn();
+        Entry entry = new Entry(occurredOn.getEpochSecond(), occurredOn.getNano(), sequence);
+        entries.add(entry);
+        bySequence.addLast(entry);
+    }
+
+    /**
+     * Removes the entries of the discarded events, walking them in storing order, so events that
+     * occurred out of order never keep older entries alive.
+     */
+    @Override
+    public void evictBefore(long sequence) {
+        while (!bySequence.isEmpty() && bySequence.peekFirst().sequence() < sequence) {
+            entries.remove(bySequence.pollFirst());
+        }
+    }
+
+    /**
+     * @return the number of indexed events, counted in O(n)
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the sequences of the events that occurred from {@code from} (inclusive)
+     * to {@code to} (exclusive), ordered by their occurred instant
+     */
+    LongStream between(Instant from, Instant to) {
+        if (!from.isBefore(to)) {
+            return LongStream.empty();
+        }
+        return entries.subSet(Entry.lowest(from), Entry.lowest(to))
+                .stream()
+                .mapToLong(Entry::sequence);
+    }
+
+    /**
+     * @return the sequences of the events that occurred from {@code from} (inclusive) on,
+     * ordered by their occurred instant
+     */
+    LongStream since(Instant from) {
+        return entries.tailSet(Entry.lowest(from))
+                .stream()
+                .mapToLong(Entry::sequence);
+    }
+
+    record Entry(long epochSecond, int nano, long sequence) implements Comparable<Entry> {
+
+        private static final Comparator<Entry> ORDER = Comparator
+                .comparingLong(Entry::epochSecond)
+                .thenComparingInt(Entry::nano)
+                .thenComparingLong(Entry::sequence);
+
+        static Entry lowest(Instant instant) {
+            return new Entry(instant.getEpochSecond(), instant.getNano(), Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+
+/**
+ * Posting lists with the sequences of the stored events, one per concrete event class.
+ * <p>
+ * Looking up a type only touches the posting lists of the classes assignable to it, so type
+ * filtered reads never visit events of other types. Sequences are kept as varint gaps in
+ * {@link DeltaPostings}, so events of the same type stored close together cost about a byte each
+ * on the heap; the {@link EventStore} keeps one up to date by default.
+ */
+public final class TypeIndex implements EventIndex {
+
+    private final Map<Class<?>, DeltaPostings> postings = new ConcurrentHashMap<>();
+
+    @Override
+    public void index(long sequence, Event event) {
+        index(sequence, event.getClass());
+    }
+
+    /**
+     * Indexes an event given its class; called by a single writer, in sequence order.
+     */
+    void index(long sequence, Class<?> type) {
+        postings.computeIfAbsent(type, key -> new DeltaPostings()).add(sequence);
+    }
+
+    @Override
+    public void evictBefore(long sequence) {
+        postings.replaceAll((type, sequences) -> sequences.compactBefore(sequence));
+    }
+
+    /**
+     * @return an estimate of the heap used by the posting lists
+     */
+    public long sizeInBytes() {
+        return postings.values().stream().mapToLong(DeltaPostings::sizeInBytes).sum();
+    }
+
+    /**
+     * @return the sequences of the events of the given type (subtypes included), in storing order
+     */
+    LongStream sequencesOf(Class<? extends Event> type) {
+        DeltaPostings[] matching = postings.entrySet()
+                .stream()
+                .filter(entry -> type.isAssignableFrom(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .toArray(DeltaPostings[]::new);
+        return switch (matching.length) {
+            case 0 -> LongStream.empty();
+            case 1 -> matching[0].stream();
+            default -> Arrays.stream(matching).flatMapToLong(DeltaPostings::stream).sorted();
+        };
+    }
+
+}
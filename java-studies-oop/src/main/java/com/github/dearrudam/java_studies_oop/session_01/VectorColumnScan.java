@@ -0,0 +1,68 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link ColumnScan} evaluating the predicates with the Vector API.
+ * <p>
+ * Epoch seconds are compared a whole vector at a time; only lanes falling exactly on the first or
+ * last second of the range need their nanos checked, which is done lane by lane. The lane count of
+ * both species divides 64, so each vector mask maps to a contiguous run of bits of a single bitmap
+ * word.
+ */
+final class VectorColumnScan implements ColumnScan {
+
+    static final VectorColumnScan INSTANCE = new VectorColumnScan();
+
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    private VectorColumnScan() {
+    }
+
+    @Override
+    public void selectTime(long[] epochSeconds, int[] nanos, int size,
+                           long fromSecond, int fromNano, long toSecond, int toNano,
+                           long[] words) {
+        int lanes = LONGS.length();
+        int bound = LONGS.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            LongVector seconds = LongVector.fromArray(LONGS, epochSeconds, i);
+            VectorMask<Long> inside = seconds.compare(VectorOperators.GT, fromSecond)
+                    .and(seconds.compare(VectorOperators.LT, toSecond));
+            long bits = inside.toLong();
+            VectorMask<Long> edges = seconds.compare(VectorOperators.EQ, fromSecond)
+                    .or(seconds.compare(VectorOperators.EQ, toSecond));
+            if (edges.anyTrue()) {
+                for (int lane = edges.firstTrue(); lane < lanes; lane++) {
+                    if (edges.laneIsSet(lane)
+                            && ScalarColumnScan.inRange(epochSeconds[i + lane], nanos[i + lane], fromSecond, fromNano, toSecond, toNano)) {
+                        bits |= 1L << lane;
+                    }
+                }
+            }
+            words[i >>> 6] |= bits << i;
+        }
+        ScalarColumnScan.selectTime(epochSeconds, nanos, i, size, fromSecond, fromNano, toSecond, toNano, words);
+    }
+
+    @Override
+    public void selectType(byte[] typeIds, int size, byte typeId, long[] words) {
+        int lanes = BYTES.length();
+        int bound = BYTES.loopBound(size);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            long others = ByteVector.fromArray(BYTES, typeIds, i)
+                    .compare(VectorOperators.NE, typeId)
+                    .toLong();
+            words[i >>> 6] &= ~(others << i);
+        }
+        ScalarColumnScan.selectType(typeIds, i, size, typeId, words);
+    }
+
+}
@@ -0,0 +1,357 @@
+package com.github.dearrudam.java_studies_oop.session_01;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent {@link EventLog} written as a write-ahead log file.
+ * <p>
+ * Records are laid out as {@code [int length][int crc32c][payload]}, the payload being written by
+ * {@link EventCodecs} and protected by its CRC32C checksum. When the log is opened, records are
+ * verified from the start of the file and everything after the first incomplete or corrupted
+ * record (a torn tail left by a crash) is truncated. A write failing halfway is rolled back the
+ * same way, and when even that fails the log refuses further appends. How often the file is forced
+ * to disk is chosen by the {@link Durability} policy.
+ */
+public class WriteAheadEventLog implements EventLog {
+
+    public enum Durability {
+        /**
+         * never forces the file, leaving it to the operating system; the file is only forced on close
+         */
+        NO_SYNC,
+        /**
+         * forces the file in the background at a fixed interval
+         */
+        PERIODIC,
+        /**
+         * forces the file once per {@link EventLog#appendAll(List)} (a single append is a batch of one)
+         */
+        PER_BATCH,
+        /**
+         * forces the file after each event
+         */
+        PER_WRITE
+    }
+
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(100);
+
+    private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+    private static final int SCAN_BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final Durability durability;
+    private final ScheduledExecutorService syncScheduler;
+    private volatile long[] positions = new long[1024];
+    private volatile long next;
+    private volatile RuntimeException syncFailure;
+    private volatile RuntimeException writeFailure;
+    private long size;
+
+    public static WriteAheadEventLog open(Path file, Durability durability) {
+        return open(file, durability, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * @param syncInterval how often the file is forced by the {@link Durability#PERIODIC} policy
+     */
+    public static WriteAheadEventLog open(Path file, Durability durability, Duration syncInterval) {
+        Objects.requireNonNull(file, "file is required");
+        Objects.requireNonNull(durability, "durability is required");
+        Objects.requireNonNull(syncInterval, "sync interval is required");
+        try {
+            return new WriteAheadEventLog(file, durability, syncInterval);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private WriteAheadEventLog(Path file, Durability durability, Duration syncInterval) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.durability = durability;
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        if (durability == Durability.PERIODIC) {
+            this.syncScheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                    .name("wal-sync")
+                    .daemon()
+                    .factory());
+            long interval = syncInterval.toNanos();
+            this.syncScheduler.scheduleWithFixedDelay(this::periodicForce, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            this.syncScheduler = null;
+        }
+    }
+
+    @Override
+    public long append(Event event) {
+        ensureWritable();
+        long sequence = write(List.of(encode(event)));
+        if (durability == Durability.PER_WRITE || durability == Durability.PER_BATCH) {
+            force();
+        }
+        return sequence;
+    }
+
+    @Override
+    public long appendAll(List<? extends Event> events) {
+        ensureWritable();
+        List<ByteBuffer> records = events.stream().map(WriteAheadEventLog::encode).toList();
+        long first;
+        if (durability == Durability.PER_WRITE) {
+            first = next;
+            for (ByteBuffer record : records) {
+                write(List.of(record));
+                force();
+            }
+        } else {
+            first = write(records);
+            if (durability == Durability.PER_BATCH) {
+                force();
+            }
+        }
+        return first;
+    }
+
+    @Override
+    public Event read(long sequence) {
+        if (sequence < 0 || sequence >= next) {
+            throw new IndexOutOfBoundsException("no event stored with sequence " + sequence);
+        }
+        long position = positions[(int) sequence];
+        try {
+            ByteBuffer header = readFully(position, HEADER_SIZE);
+            return EventCodecs.decode(readFully(position + HEADER_SIZE, header.getInt(0)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Visits the events from the given sequence on through a single {@link EventFlyweight} over the
+     * records read in chunks of the file, without creating event objects.
+     */
+    @Override
+    public void scan(long fromSequence, EventFlyweight.Visitor visitor) {
+        long last = next;
+        long[] current = positions;
+        EventFlyweight flyweight = new EventFlyweight();
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_BUFFER_SIZE).limit(0);
+        long chunkStart = 0;
+        try {
+            for (long sequence = Math.max(fromSequence, 0); sequence < last; sequence++) {
+                long position = current[(int) sequence];
+                long offset = position - chunkStart;
+                if (offset + HEADER_SIZE > chunk.limit() || offset + HEADER_SIZE + chunk.getInt((int) offset) > chunk.limit()) {
+                    chunkStart = position;
+                    offset = 0;
+                    chunk = fill(chunk, position);
+                    int recordSize = HEADER_SIZE + chunk.getInt(0);
+                    if (recordSize > chunk.limit()) {
+                        // a record larger than the buffer
+                        chunk = fill(ByteBuffer.allocate(recordSize), position);
+                        if (chunk.limit() < recordSize) {
+                            throw new IOException("unexpected end of file at position " + position);
+                        }
+                    }
+                }
+                if (!visitor.visit(sequence, flyweight.wrap(chunk, (int) offset + HEADER_SIZE))) {
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long nextSequence() {
+        return next;
+    }
+
+    /**
+     * Waits for a periodic sync in progress, then forces and closes the file. The sync thread is
+     * not interrupted, since interrupting a {@link FileChannel} operation closes the channel.
+     */
+    @Override
+    public void close() {
+        if (syncScheduler != null) {
+            syncScheduler.shutdown();
+            try {
+                if (!syncScheduler.awaitTermination(10, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("periodic sync did not finish in time");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for the periodic sync", e);
+            }
+        }
+        try {
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer encode(Event event) {
+        byte[] payload = EventCodecs.encode(event);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return ByteBuffer.allocate(HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+    }
+
+    private long write(List<ByteBuffer> records) {
+        long first = next;
+        long position = size;
+        long[] current = positions;
+        if (first + records.size() > current.length) {
+            current = Arrays.copyOf(current, (int) Math.max(current.length * 2L, first + records.size()));
+        }
+        for (int i = 0; i < records.size(); i++) {
+            current[(int) first + i] = position;
+            position += records.get(i).remaining();
+        }
+        try {
+            ByteBuffer[] buffers = records.toArray(ByteBuffer[]::new);
+            long written = 0;
+            long expected = position - size;
+            while (written < expected) {
+                written += channel.write(buffers);
+            }
+        } catch (IOException e) {
+            rollBack(e);
+            throw new UncheckedIOException(e);
+        }
+        size = position;
+        positions = current;
+        next = first + records.size();
+        return first;
+    }
+
+    /**
+     * Forces the file for the {@link Durability#PERIODIC} policy; a failure is kept, so it is
+     * reported by the next append instead of silently stopping the periodic syncs.
+     */
+    private void periodicForce() {
+        try {
+            force();
+        } catch (RuntimeException e) {
+            syncFailure = e;
+        }
+    }
+
+    /**
+     * Drops the part of a record written before the failure, so the next append does not land
+     * after a torn frame; when that fails too, the log refuses further appends.
+     */
+    private void rollBack(IOException failure) {
+        try {
+            channel.truncate(size);
+            channel.position(size);
+        } catch (IOException e) {
+            failure.addSuppressed(e);
+            writeFailure = new UncheckedIOException(failure);
+        }
+    }
+
+    private void ensureWritable() {
+        if (writeFailure != null) {
+            throw new IllegalStateException("log could not roll back a failed write", writeFailure);
+        }
+        if (syncFailure != null) {
+            throw new IllegalStateException("periodic sync failed", syncFailure);
+        }
+    }
+
+    private void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long fileSize = channel.size();
+        long position = 0;
+        long sequence = 0;
+        long[] recovered = positions;
+        CRC32C crc = new CRC32C();
+        while (position + HEADER_SIZE <= fileSize) {
+            ByteBuffer header = readFully(position, HEADER_SIZE);
+            int length = header.getInt(0);
+            if (length <= 0 || position + HEADER_SIZE + length > fileSize) {
+                break;
+            }
+            ByteBuffer payload = readFully(position + HEADER_SIZE, length);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != header.getInt(Integer.BYTES)) {
+                break;
+            }
+            if (sequence == recovered.length) {
+                recovered = Arrays.copyOf(recovered, recovered.length * 2);
+            }
+            recovered[(int) sequence++] = position;
+            position += HEADER_SIZE + length;
+        }
+        if (position < fileSize) {
+            // dropping the torn tail left by an interrupted write
+            channel.truncate(position);
+            channel.force(true);
+        }
+        channel.position(position);
+        this.positions = recovered;
+        this.size = position;
+        this.next = sequence;
+    }
+
+    /**
+     * Reads from the given position as many bytes as the buffer holds, or up to the end of the file,
+     * at least a record header.
+     */
+    private ByteBuffer fill(ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer, position + buffer.position());
+        } while (read > 0 && buffer.hasRemaining());
+        buffer.flip();
+        if (buffer.limit() < HEADER_SIZE) {
+            throw new IOException("unexpected end of file at position " + position);
+        }
+        return buffer;
+    }
+
+    private ByteBuffer readFully(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("unexpected end of file at position " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.github.dearrudam.java_studies_oop.benchmarks;
+
+import com.github.dearrudam.java_studies_oop.session_01.ColumnScan;
+import com.github.dearrudam.java_studies_oop.session_01.ColumnarEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.BitSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time-window and type selection over the columns of a {@link ColumnarEventLog}: scalar loop
+ * versus the Vector API. The vectorized engine is only compiled by the {@code vector-api} Maven
+ * profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g", "--add-modules", "jdk.incubator.vector"})
+public class ColumnScanBenchmark {
+
+    private static final Instant BASE = Instant.parse("2024-10-01T10:00:00Z");
+
+    @Param({"10000000", "30000000"})
+    public int events;
+
+    private ColumnarEventLog log;
+    private Instant from;
+    private Instant to;
+
+    @Setup
+    public void setup() {
+        log = new ColumnarEventLog();
+        for (int i = 0; i < events; i++) {
+            // ten events per second; the payload literals are shared, only the columns grow
+            Instant occurredOn = BASE.plusMillis(i * 100L);
+            log.append(i % 4 == 0
+                    ? new ProcessEvent("deploy --service payments", occurredOn)
+                    : new MessageEvent("user signed in", occurredOn));
+        }
+        // a window covering a tenth of the stored events, starting in the middle of a second
+        from = BASE.plusMillis(events * 45L + 50);
+        to = from.plusMillis(events * 10L);
+    }
+
+    @Benchmark
+    public BitSet scalarTimeWindow() {
+        return ColumnScan.scalar().select(log, from, to);
+    }
+
+    @Benchmark
+    public BitSet vectorizedTimeWindow() {
+        return ColumnScan.vectorized().select(log, from, to);
+    }
+
+    @Benchmark
+    public BitSet scalarTimeWindowAndType() {
+        return ColumnScan.scalar().select(log, from, to, ProcessEvent.class);
+    }
+
+    @Benchmark
+    public BitSet vectorizedTimeWindowAndType() {
+        return ColumnScan.vectorized().select(log, from, to, ProcessEvent.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColumnScanBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
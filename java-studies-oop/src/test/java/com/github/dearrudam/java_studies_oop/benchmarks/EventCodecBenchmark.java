@@ -0,0 +1,76 @@
+package com.github.dearrudam.java_studies_oop.benchmarks;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventCodecs;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding, decoding and round-trip throughput of {@link EventCodecs}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventCodecBenchmark {
+
+    @Param({"MessageEvent", "ProcessEvent"})
+    public String eventType;
+
+    private Event event;
+    private byte[] encoded;
+    private final ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+    @Setup
+    public void setup() {
+        event = switch (eventType) {
+            case "MessageEvent" -> new MessageEvent("user 42 signed in from 10.0.0.12");
+            case "ProcessEvent" -> new ProcessEvent("deploy --service payments --version 1.4.2");
+            default -> throw new IllegalArgumentException(eventType);
+        };
+        encoded = EventCodecs.encode(event);
+    }
+
+    @Benchmark
+    public int encode() {
+        return EventCodecs.encode(event, buffer.clear());
+    }
+
+    @Benchmark
+    public Event decode() {
+        return EventCodecs.decode(ByteBuffer.wrap(encoded));
+    }
+
+    @Benchmark
+    public Event roundTrip() {
+        EventCodecs.encode(event, buffer.clear());
+        return EventCodecs.decode(buffer.flip());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EventCodecBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
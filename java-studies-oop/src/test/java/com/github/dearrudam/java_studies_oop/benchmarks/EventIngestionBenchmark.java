@@ -0,0 +1,93 @@
+package com.github.dearrudam.java_studies_oop.benchmarks;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventIngestor;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the throughput of many producers calling {@link EventStore#store(Event)} directly,
+ * contending on its write lock, against handing the events over through an {@link EventIngestor}.
+ * <p>
+ * Each invocation stores a batch of {@value #BATCH_SIZE} events, and the ingestor path then waits
+ * with {@link EventIngestor#flush()} until the writer thread has stored them, so both paths are
+ * timed until the events are in the store, not just enqueued.
+ * <p>
+ * The {@link #main(String[])} method runs both paths from 1 up to N producer threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EventIngestionBenchmark {
+
+    private static final int BATCH_SIZE = 1024;
+
+    private final Event event = new MessageEvent("benchmark message");
+
+    private EventStore eventStore;
+    private EventIngestor ingestor;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        eventStore = new EventStore();
+        ingestor = new EventIngestor(eventStore);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        ingestor.close();
+        eventStore.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public long lockedStore() {
+        long sequence = 0;
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            sequence = eventStore.store(event);
+        }
+        return sequence;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void ingestorStore() {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ingestor.store(event);
+        }
+        ingestor.flush();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(EventIngestionBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build())
+                    .run();
+        }
+    }
+
+}
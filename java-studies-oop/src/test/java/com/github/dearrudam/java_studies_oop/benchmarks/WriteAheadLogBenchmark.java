@@ -0,0 +1,89 @@
+package com.github.dearrudam.java_studies_oop.benchmarks;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog.Durability;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency distribution of {@link WriteAheadEventLog} for each {@link Durability}
+ * policy, storing one event at a time and in batches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WriteAheadLogBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Param
+    public Durability durability;
+
+    private final Event event = new MessageEvent("user 42 signed in from 10.0.0.12");
+    private final List<Event> batch = Collections.nCopies(BATCH_SIZE, event);
+
+    private Path directory;
+    private EventStore eventStore;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("wal-benchmark");
+        eventStore = new EventStore(WriteAheadEventLog.open(directory.resolve("events.wal"), durability));
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        eventStore.close();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public long store() {
+        return eventStore.store(event);
+    }
+
+    @Benchmark
+    public long storeAll() {
+        return eventStore.storeAll(batch);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WriteAheadLogBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.AsyncEventStore;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class AsyncEventStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldCompleteFuturesOnceTheirBatchIsDurable() throws Exception {
+
+        int producers = 2000;
+        List<Long> sequences = new ArrayList<>();
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(directory.resolve("events.wal"), WriteAheadEventLog.Durability.PER_BATCH))) {
+
+            try (var asyncEventStore = new AsyncEventStore(eventStore);
+                 var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+                List<Future<Long>> futures = new ArrayList<>();
+                for (int i = 0; i < producers; i++) {
+                    var event = new MessageEvent("message " + i);
+                    futures.add(executor.submit(() -> asyncEventStore.storeAsync(event).join()));
+                }
+                for (Future<Long> future : futures) {
+                    sequences.add(future.get());
+                }
+            }
+
+            CompletableFuture<Long> afterClose;
+            try (var asyncEventStore = new AsyncEventStore(eventStore)) {
+                asyncEventStore.close();
+                afterClose = asyncEventStore.storeAsync(new MessageEvent("after close"));
+            }
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(sequences)
+                        .as("every future should complete with a distinct sequence")
+                        .containsExactlyInAnyOrderElementsOf(LongStream.range(0, producers).boxed().toList());
+
+                softly.assertThat(eventStore.listAll())
+                        .as("every event should be stored once its future completes")
+                        .hasSize(producers);
+
+                softly.assertThat(afterClose)
+                        .as("storeAsync() should fail once the facade is closed")
+                        .isCompletedExceptionally();
+
+            });
+        }
+    }
+
+}
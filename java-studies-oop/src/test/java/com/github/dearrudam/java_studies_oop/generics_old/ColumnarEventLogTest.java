@@ -0,0 +1,84 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.ColumnScan;
+import com.github.dearrudam.java_studies_oop.session_01.ColumnarEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class ColumnarEventLogTest {
+
+    @Test
+    void shouldFilterEventsByTimeAndTypeOverColumns() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+        List<Event> expectedEventList = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            expectedEventList.add(i % 2 == 0
+                    ? new MessageEvent("message " + i, base.plusMillis(i * 500L))
+                    : new ProcessEvent("command --" + i, base.plusMillis(i * 500L)));
+        }
+
+        var log = new ColumnarEventLog();
+        try (var eventStore = new EventStore(log)) {
+
+            eventStore.storeAll(expectedEventList);
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.listAll())
+                        .as("events rebuilt from the columns should equal the stored ones")
+                        .containsExactlyElementsOf(expectedEventList);
+
+                softly.assertThat(log.sequencesBetween(base.plusSeconds(10), base.plusSeconds(12)))
+                        .as("sequencesBetween() should include the lower bound and exclude the upper bound")
+                        .containsExactly(20L, 21L, 22L, 23L);
+
+                softly.assertThat(log.sequencesBetween(base.plusSeconds(10), base.plusSeconds(12), ProcessEvent.class))
+                        .as("sequencesBetween() should also filter by type")
+                        .containsExactly(21L, 23L);
+
+            });
+        }
+    }
+
+    @Test
+    void shouldSelectTheSameEventsWithScalarAndVectorizedScans() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+        var log = new ColumnarEventLog(ColumnScan.scalar());
+        for (int i = 0; i < 1037; i++) {
+            Instant occurredOn = base.plusMillis(i * 250L);
+            log.append(i % 3 == 0
+                    ? new ProcessEvent("command --" + i, occurredOn)
+                    : new MessageEvent("message " + i, occurredOn));
+        }
+        var from = base.plusMillis(10_250);
+        var to = base.plusSeconds(200);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(ColumnScan.scalar().select(log, from, to).cardinality())
+                    .as("select() should set a bit for every event inside the window")
+                    .isEqualTo(759);
+
+            softly.assertThat(ColumnScan.best().select(log, from, to))
+                    .as("the best scan should select the same events as the scalar one")
+                    .isEqualTo(ColumnScan.scalar().select(log, from, to));
+
+            softly.assertThat(ColumnScan.best().select(log, from, to, ProcessEvent.class))
+                    .as("the best scan should filter by type like the scalar one")
+                    .isEqualTo(ColumnScan.scalar().select(log, from, to, ProcessEvent.class));
+
+        });
+    }
+
+}
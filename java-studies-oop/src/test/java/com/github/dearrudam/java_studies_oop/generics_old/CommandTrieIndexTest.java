@@ -0,0 +1,81 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.CommandTrieIndex;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.within;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class CommandTrieIndexTest {
+
+    @Test
+    void shouldFindCommandsByPrefixAndExactMatch() {
+
+        try (var eventStore = new EventStore()) {
+
+            var commandIndex = eventStore.attach(new CommandTrieIndex());
+            eventStore.store(new ProcessEvent("deploy --service payments"));
+            eventStore.store(new ProcessEvent("deploy --service orders"));
+            eventStore.store(new MessageEvent("deploy --service payments"));
+            eventStore.store(new ProcessEvent("delete --service orders"));
+            eventStore.store(new ProcessEvent("deploy"));
+            eventStore.store(new ProcessEvent("deploy --service payments"));
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(commandIndex.sequencesStartingWith("deploy --"))
+                        .as("sequencesStartingWith() should find the commands with the prefix, in storing order")
+                        .containsExactly(0L, 1L, 5L);
+
+                softly.assertThat(commandIndex.sequencesStartingWith("de"))
+                        .as("sequencesStartingWith() should accept a prefix ending in the middle of an edge")
+                        .containsExactly(0L, 1L, 3L, 4L, 5L);
+
+                softly.assertThat(commandIndex.sequencesOf("deploy --service payments"))
+                        .as("sequencesOf() should only find the exact command")
+                        .containsExactly(0L, 5L);
+
+                softly.assertThat(commandIndex.sequencesOf("deploy --service"))
+                        .as("sequencesOf() should not match a prefix of a command")
+                        .isEmpty();
+
+                softly.assertThat(commandIndex.sequencesStartingWith("restart"))
+                        .as("sequencesStartingWith() should find nothing for an unknown prefix")
+                        .isEmpty();
+
+                softly.assertThat(commandIndex.memoryUsage().commands())
+                        .as("memoryUsage() should count the distinct indexed commands")
+                        .isEqualTo(4);
+
+                softly.assertThat(commandIndex.memoryUsage().bytesPerCommand())
+                        .as("memoryUsage() should report the bytes used per indexed command")
+                        .isPositive();
+
+                softly.assertThat(commandIndex.memoryUsageByCommand())
+                        .as("memoryUsageByCommand() should report every indexed command")
+                        .containsOnlyKeys("deploy --service payments", "deploy --service orders", "delete --service orders", "deploy");
+
+                softly.assertThat(commandIndex.memoryUsageByCommand().values().stream().mapToLong(Long::longValue).sum())
+                        .as("memoryUsageByCommand() should add up to the whole index, give or take rounding")
+                        .isCloseTo(commandIndex.memoryUsage().bytes(), within(4L));
+
+                softly.assertThat(commandIndex.memoryUsage("deploy --service orders"))
+                        .as("memoryUsage(command) should match the share reported by memoryUsageByCommand()")
+                        .isEqualTo(commandIndex.memoryUsageByCommand().get("deploy --service orders"));
+
+                softly.assertThat(commandIndex.memoryUsage("deploy --service"))
+                        .as("memoryUsage(command) should be 0 for a prefix that is not an indexed command")
+                        .isZero();
+
+                softly.assertThat(commandIndex.rangesStartingWith("deploy"))
+                        .as("rangesStartingWith() should coalesce consecutive sequences")
+                        .containsExactly(new CommandTrieIndex.SequenceRange(0, 2), new CommandTrieIndex.SequenceRange(4, 6));
+
+            });
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.EventClock;
+import com.github.dearrudam.java_studies_oop.session_01.EventClocks;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventClockTest {
+
+    @Test
+    void shouldCreateEventsWithTheConfiguredClock() {
+
+        var fixed = Instant.parse("2024-10-01T10:00:00Z");
+        EventClock previous = EventClocks.use(() -> fixed);
+        try {
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(new MessageEvent("message").occurredOn())
+                        .as("MessageEvent should take its instant from the configured clock")
+                        .isEqualTo(fixed);
+
+                softly.assertThat(new ProcessEvent("command").occurredOn())
+                        .as("ProcessEvent should take its instant from the configured clock")
+                        .isEqualTo(fixed);
+
+            });
+        } finally {
+            EventClocks.use(previous);
+        }
+    }
+
+    @Test
+    void shouldReturnTheCachedInstantBetweenTicks() {
+
+        var before = Instant.now();
+        try (var clock = EventClock.coarse(Duration.ofHours(1))) {
+
+            var first = clock.now();
+            var second = clock.now();
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(second)
+                        .as("now() should return the same cached instant within a tick")
+                        .isSameAs(first);
+
+                softly.assertThat(first)
+                        .as("the cached instant should be taken when the clock starts")
+                        .isAfterOrEqualTo(before);
+
+            });
+        }
+    }
+
+}
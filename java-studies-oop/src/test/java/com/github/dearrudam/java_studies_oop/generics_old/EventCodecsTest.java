@@ -0,0 +1,72 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventCodec;
+import com.github.dearrudam.java_studies_oop.session_01.EventCodecs;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventCodecsTest {
+
+    record AlertEvent(String level, Instant occurredOn) implements Event {
+    }
+
+    static Stream<Event> events() {
+        return Stream.of(
+                new MessageEvent("olá, événement ✓"),
+                new MessageEvent("", Instant.parse("1969-07-20T20:17:40.123456789Z")),
+                new ProcessEvent("deploy --service payments"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("events")
+    void shouldRoundTripEvents(Event event) {
+
+        byte[] encoded = EventCodecs.encode(event);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(EventCodecs.decode(ByteBuffer.wrap(encoded)))
+                    .as("decode() should return an event equal to the encoded one")
+                    .isEqualTo(event);
+
+            softly.assertThat(encoded)
+                    .as("encodedSize() should match the encoded length")
+                    .hasSize(EventCodecs.encodedSize(event));
+
+        });
+    }
+
+    @Test
+    void shouldEncodeRegisteredEventTypes() {
+
+        EventCodecs.register(EventCodec.of((byte) 100, AlertEvent.class, AlertEvent::level, AlertEvent::new));
+
+        var event = new AlertEvent("critical", Instant.now());
+        var buffer = ByteBuffer.allocate(64);
+        EventCodecs.encode(event, buffer);
+
+        assertThat(EventCodecs.decode(buffer.flip()))
+                .as("registered event types should be encoded and decoded as well")
+                .isEqualTo(event);
+    }
+
+    @Test
+    void shouldRejectUnknownTypeIds() {
+        assertThatThrownBy(() -> EventCodecs.decode(ByteBuffer.wrap(new byte[]{(byte) 250, 0, 0, 0})))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("unknown event type id: 250");
+    }
+
+}
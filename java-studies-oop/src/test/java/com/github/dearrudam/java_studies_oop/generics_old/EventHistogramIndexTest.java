@@ -0,0 +1,59 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventHistogramIndex;
+import com.github.dearrudam.java_studies_oop.session_01.EventHistogramIndex.Resolution;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventHistogramIndexTest {
+
+    @Test
+    void shouldCountEventsPerTypeOverTimeWindows() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+
+        try (var eventStore = new EventStore()) {
+
+            var histogram = eventStore.attach(new EventHistogramIndex());
+            // one message every second and one process every ten seconds, for ten minutes
+            for (int second = 0; second < 600; second++) {
+                eventStore.store(new MessageEvent("message " + second, base.plusSeconds(second).plusMillis(500)));
+                if (second % 10 == 0) {
+                    eventStore.store(new ProcessEvent("command --" + second, base.plusSeconds(second)));
+                }
+            }
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(histogram.count(MessageEvent.class, base.plusSeconds(30), base.plusSeconds(150)))
+                        .as("count() should combine minute and second buckets")
+                        .isEqualTo(120);
+
+                softly.assertThat(histogram.count(ProcessEvent.class, base, base.plusSeconds(600)))
+                        .as("count() should only count the events of the given type")
+                        .isEqualTo(60);
+
+                softly.assertThat(histogram.count(Event.class, base.plusSeconds(595), base.plusSeconds(1000)))
+                        .as("count() should include subtypes and stop at the last event")
+                        .isEqualTo(5);
+
+                softly.assertThat(histogram.counts(ProcessEvent.class, Resolution.MINUTE, base, base.plusSeconds(180)))
+                        .as("counts() should return the count of each bucket of the resolution")
+                        .containsExactly(6, 6, 6);
+
+                softly.assertThat(histogram.counts(MessageEvent.class, Resolution.SECOND, base.plusSeconds(10), base.plusSeconds(13)))
+                        .as("counts() should support second buckets")
+                        .containsExactly(1, 1, 1);
+
+            });
+        }
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.EventIngestor;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventIngestorTest {
+
+    @Test
+    void shouldStoreEventsFromManyProducers() throws InterruptedException {
+
+        var producers = 4;
+        var eventsPerProducer = 10_000;
+        var eventStore = new EventStore();
+
+        try (var ingestor = new EventIngestor(eventStore, 256)) {
+
+            try (var executor = Executors.newFixedThreadPool(producers)) {
+                IntStream.range(0, producers).forEach(producer -> executor.submit(() -> {
+                    for (int i = 0; i < eventsPerProducer; i++) {
+                        ingestor.store(new MessageEvent(producer + ":" + i));
+                    }
+                }));
+                executor.shutdown();
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            }
+
+            ingestor.flush();
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.stream().count())
+                        .as("every event handed to the ingestor should be stored")
+                        .isEqualTo((long) producers * eventsPerProducer);
+
+                softly.assertThatThrownBy(() -> ingestor.store(null))
+                        .as("store() should not accept null event")
+                        .isInstanceOf(NullPointerException.class)
+                        .hasMessage("event is required");
+
+            });
+        }
+
+    }
+
+}
@@ -0,0 +1,205 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventRetention;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MappedSegmentEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import com.github.dearrudam.java_studies_oop.session_01.RetentionPolicy;
+import com.github.dearrudam.java_studies_oop.session_01.TimeIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventRetentionTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldDiscardTheOldestEventsBeyondTheMaxEvents() {
+
+        var base = Instant.now().minus(Duration.ofDays(1));
+
+        try (var eventStore = new EventStore();
+             var retention = EventRetention.start(eventStore, RetentionPolicy.unbounded().withMaxEvents(100), Duration.ofHours(1))) {
+
+            for (int i = 0; i < 1000; i++) {
+                eventStore.store(i % 2 == 0
+                        ? new MessageEvent("message " + i, base.plusSeconds(i))
+                        : new ProcessEvent("command --" + i, base.plusSeconds(i)));
+            }
+
+            long first = retention.enforce();
+            List<Event> kept = eventStore.stream().toList();
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(first)
+                        .as("enforce() should discard whole chunks of the oldest events")
+                        .isBetween(900L - 32, 900L);
+
+                softly.assertThat(kept)
+                        .as("stream() should start at the first kept event")
+                        .hasSize((int) (1000 - first))
+                        .last()
+                        .isEqualTo(new ProcessEvent("command --999", base.plusSeconds(999)));
+
+                softly.assertThat(eventStore.listAll())
+                        .as("listAll() should only return the kept events")
+                        .containsExactlyElementsOf(kept);
+
+                softly.assertThat(eventStore.between(base, base.plusSeconds(1000)))
+                        .as("between() should skip the discarded events")
+                        .containsExactlyElementsOf(kept);
+
+                softly.assertThat(eventStore.listAll(ProcessEvent.class))
+                        .as("listAll(type) should skip the discarded events")
+                        .hasSize((int) kept.stream().filter(ProcessEvent.class::isInstance).count());
+
+                softly.assertThat(eventStore.cursor(0).next())
+                        .as("a cursor behind the first kept event should skip the discarded ones")
+                        .isEqualTo(kept.get(0));
+
+                softly.assertThat(eventStore.store(new MessageEvent("after retention")))
+                        .as("sequences should never be reused")
+                        .isEqualTo(1000L);
+
+            });
+        }
+    }
+
+    @Test
+    void shouldDiscardExpiredEvents() {
+
+        var now = Instant.now();
+
+        try (var eventStore = new EventStore();
+             var retention = EventRetention.start(eventStore, RetentionPolicy.unbounded().withMaxAge(Duration.ofMinutes(1)), Duration.ofHours(1))) {
+
+            for (int i = 0; i < 640; i++) {
+                eventStore.store(new MessageEvent("expired " + i, now.minus(Duration.ofHours(1))));
+            }
+            eventStore.store(new MessageEvent("recent", now));
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(retention.enforce())
+                        .as("enforce() should discard every event older than the max age")
+                        .isEqualTo(640L);
+
+                softly.assertThat(eventStore.listAll())
+                        .as("only the recent event should be kept")
+                        .containsExactly(new MessageEvent("recent", now));
+
+            });
+        }
+    }
+
+    @Test
+    void shouldDeleteWholeSegmentsOfSegmentedLogs() throws Exception {
+
+        try (var eventStore = new EventStore(MappedSegmentEventLog.open(directory, 256));
+             var retention = EventRetention.start(eventStore, RetentionPolicy.unbounded().withMaxBytes(512), Duration.ofHours(1))) {
+
+            for (int i = 0; i < 200; i++) {
+                eventStore.store(new MessageEvent("message " + i));
+            }
+
+            long first = retention.enforce();
+
+            try (var segments = Files.list(directory)) {
+
+                long segmentCount = segments.count();
+
+                assertSoftly(softly -> {
+
+                    softly.assertThat(first)
+                            .as("enforce() should discard the oldest events")
+                            .isPositive();
+
+                    softly.assertThat(segmentCount)
+                            .as("only the segments holding kept events should remain")
+                            .isLessThanOrEqualTo(3);
+
+                    softly.assertThat(eventStore.stream().findFirst().orElseThrow())
+                            .as("stream() should start at the first event of the oldest kept segment")
+                            .isEqualTo(eventStore.cursor(first).next());
+
+                });
+            }
+        }
+    }
+
+    @Test
+    void shouldEvictBackDatedEventsFromAttachedTimeIndexes() {
+
+        var base = Instant.now().minus(Duration.ofDays(1));
+
+        try (var eventStore = new EventStore();
+             var retention = EventRetention.start(eventStore, RetentionPolicy.unbounded().withMaxEvents(1000), Duration.ofHours(1))) {
+
+            var timeIndex = eventStore.attach(new TimeIndex());
+            for (int i = 0; i < 10_000; i++) {
+                eventStore.store(new MessageEvent("message " + i, base.plusSeconds(i)));
+            }
+            eventStore.store(new MessageEvent("back-dated", base.minusSeconds(1)));
+
+            long first = retention.enforce();
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(timeIndex.size())
+                        .as("evictBefore() should drop every discarded event, even behind a back-dated one")
+                        .isEqualTo((int) (10_001 - first));
+
+                softly.assertThat(eventStore.between(base.minusSeconds(1), base))
+                        .as("between() should still find the kept back-dated event")
+                        .containsExactly(new MessageEvent("back-dated", base.minusSeconds(1)));
+
+            });
+        }
+    }
+
+    @Test
+    void shouldKeepStreamingWhileEventsAreDiscarded() throws Exception {
+
+        try (var eventStore = new EventStore();
+             var retention = EventRetention.start(eventStore, RetentionPolicy.unbounded().withMaxEvents(64), Duration.ofHours(1))) {
+
+            var writer = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 200_000; i++) {
+                    eventStore.store(new MessageEvent("message " + i));
+                    if (i % 256 == 0) {
+                        retention.enforce();
+                    }
+                }
+            });
+
+            long read = 0;
+            while (writer.isAlive()) {
+                read += eventStore.stream().count();
+                var cursor = eventStore.cursor(0);
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    read++;
+                }
+            }
+            writer.join();
+
+            assertThat(read)
+                    .as("stream() and cursors should skip the events discarded while reading them")
+                    .isPositive();
+        }
+    }
+
+}
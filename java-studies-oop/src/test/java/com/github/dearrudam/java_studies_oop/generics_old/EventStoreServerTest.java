@@ -0,0 +1,87 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.EventStoreClient;
+import com.github.dearrudam.java_studies_oop.session_01.EventStoreServer;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventStoreServerTest {
+
+    @Test
+    void shouldShareTheStoreBetweenPipelinedClients() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+
+        try (var eventStore = new EventStore();
+             var server = EventStoreServer.start(eventStore);
+             var firstClient = EventStoreClient.connect(server.address());
+             var secondClient = EventStoreClient.connect(server.address())) {
+
+            List<Event> expectedEventList = new ArrayList<>();
+            List<CompletableFuture<Long>> sequences = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                var event = new MessageEvent("message " + i, base.plusSeconds(i));
+                expectedEventList.add(event);
+                sequences.add(firstClient.store(event));
+            }
+            List<Event> batch = List.of(
+                    new ProcessEvent("command --first", base),
+                    new ProcessEvent("command --second", base));
+            expectedEventList.addAll(batch);
+            var batchSequence = firstClient.storeAll(batch);
+            CompletableFuture.allOf(sequences.toArray(CompletableFuture[]::new)).join();
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(sequences)
+                        .as("pipelined store() calls should complete in the order they were sent")
+                        .extracting(CompletableFuture::join)
+                        .containsExactlyElementsOf(LongStream.range(0, 100).boxed().toList());
+
+                softly.assertThat(batchSequence.join())
+                        .as("storeAll() should complete with the sequence of the first event of the batch")
+                        .isEqualTo(100L);
+
+                softly.assertThat(secondClient.read(0, 1000).join())
+                        .as("read() from another client should return the shared events")
+                        .containsExactlyElementsOf(expectedEventList);
+
+                softly.assertThat(secondClient.read(98, 2).join())
+                        .as("read() should honour the starting sequence and the max events")
+                        .containsExactlyElementsOf(expectedEventList.subList(98, 100));
+
+                softly.assertThat(secondClient.read(-1, 10))
+                        .as("a rejected request should fail its future only")
+                        .failsWithin(Duration.ofSeconds(5));
+
+                Event unsupported = () -> base;
+
+                softly.assertThat(firstClient.store(unsupported))
+                        .as("an event that cannot be encoded should fail the future instead of throwing")
+                        .failsWithin(Duration.ofSeconds(5));
+
+                softly.assertThat(firstClient.storeAll(List.of(unsupported)))
+                        .as("a batch that cannot be encoded should fail the future instead of throwing")
+                        .failsWithin(Duration.ofSeconds(5));
+
+                softly.assertThat(secondClient.store(new MessageEvent("after failure", base)).join())
+                        .as("the connection should keep working after a rejected request")
+                        .isEqualTo(102L);
+
+            });
+        }
+    }
+
+}
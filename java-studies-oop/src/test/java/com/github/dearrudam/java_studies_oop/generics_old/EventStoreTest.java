@@ -1,9 +1,15 @@
 package com.github.dearrudam.java_studies_oop.generics_old;
 
+import com.github.dearrudam.java_studies_oop.session_01.Event;
 import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import com.github.dearrudam.java_studies_oop.session_01.TimeIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.assertj.core.api.SoftAssertions.assertSoftly;
@@ -46,4 +52,192 @@ class EventStoreTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldQueryEventsByOccurredOnRange() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+        var first = new ProcessEvent("first command", base);
+        var second = new MessageEvent("second message", base.plusSeconds(10));
+        var third = new ProcessEvent("third command", base.plusSeconds(20));
+        var late = new MessageEvent("late message", base.plusSeconds(5));
+
+        List.of(first, second, third, late).forEach(eventStore::store);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(eventStore.between(base, base.plusSeconds(20)))
+                    .as("between() should include the lower bound, exclude the upper bound and sort by occurredOn")
+                    .containsExactly(first, late, second);
+
+            softly.assertThat(eventStore.since(base.plusSeconds(10)))
+                    .as("since() should return the events that occurred from the given instant on")
+                    .containsExactly(second, third);
+
+            softly.assertThat(eventStore.between(base.plusSeconds(20), base))
+                    .as("between() should be empty when the range is inverted")
+                    .isEmpty();
+
+        });
+
+    }
+
+    @Test
+    void shouldReadEventsIncrementallyThroughCursors() {
+
+        var first = new ProcessEvent("first command");
+        var second = new MessageEvent("second message");
+        var third = new ProcessEvent("third command");
+
+        eventStore.store(first);
+        eventStore.store(second);
+
+        var cursor = eventStore.cursor(0);
+        var firstRead = cursor.next();
+        eventStore.store(third);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(firstRead).isEqualTo(first);
+
+            softly.assertThat(cursor.position())
+                    .as("position() should be the sequence of the next event to be read")
+                    .isEqualTo(1);
+
+            softly.assertThat(cursor)
+                    .toIterable()
+                    .as("cursor should also visit events stored after its creation")
+                    .containsExactly(second, third);
+
+            softly.assertThatThrownBy(cursor::remove)
+                    .as("cursor should not allow modifying the store")
+                    .isInstanceOf(UnsupportedOperationException.class);
+
+            softly.assertThat(eventStore.stream(1))
+                    .as("stream() should start at the given sequence")
+                    .containsExactly(second, third);
+
+        });
+
+    }
+
+    @Test
+    void shouldStoreBatchesAtOnce() {
+
+        var batch = List.of(
+                new ProcessEvent("first command"),
+                new MessageEvent("second message"),
+                new ProcessEvent("third command"));
+
+        eventStore.store(new MessageEvent("before the batch"));
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(eventStore.storeAll(batch))
+                    .as("storeAll() should return the sequence of the first event of the batch")
+                    .isEqualTo(1);
+
+            softly.assertThatThrownBy(() -> eventStore.storeAll(Arrays.asList(new MessageEvent("valid"), null)))
+                    .as("storeAll() should not accept null events")
+                    .isInstanceOf(NullPointerException.class)
+                    .hasMessage("event is required");
+
+            softly.assertThat(eventStore.stream(1))
+                    .as("a rejected batch should not be partially stored")
+                    .containsExactlyElementsOf(batch);
+
+        });
+
+    }
+
+    @Test
+    void shouldReturnImmutableSnapshots() {
+
+        var first = new ProcessEvent("first command");
+        var second = new MessageEvent("second message");
+
+        eventStore.store(first);
+        var snapshot = eventStore.listAll();
+        eventStore.store(second);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(snapshot)
+                    .as("a snapshot should not see events stored after it was taken")
+                    .containsExactly(first);
+
+            softly.assertThat(eventStore.listAll())
+                    .as("a new snapshot should see every stored event")
+                    .containsExactly(first, second);
+
+            softly.assertThatThrownBy(() -> snapshot.add(second))
+                    .as("snapshots should not allow external modifications")
+                    .isInstanceOf(UnsupportedOperationException.class);
+
+        });
+
+    }
+
+    @Test
+    void shouldListEventsByType() {
+
+        var firstProcess = new ProcessEvent("first command");
+        var firstMessage = new MessageEvent("first message");
+        var secondProcess = new ProcessEvent("second command");
+        var secondMessage = new MessageEvent("second message");
+
+        List.of(firstProcess, firstMessage, secondProcess, secondMessage).forEach(eventStore::store);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(eventStore.listAll(ProcessEvent.class))
+                    .as("listAll(type) should return only the events of the given type in storing order")
+                    .containsExactly(firstProcess, secondProcess);
+
+            softly.assertThat(eventStore.listAll(MessageEvent.class))
+                    .as("listAll(type) should return only the events of the given type in storing order")
+                    .containsExactly(firstMessage, secondMessage);
+
+            softly.assertThat(eventStore.listAll(Event.class))
+                    .as("listAll(type) should include subtypes, merged in storing order")
+                    .containsExactly(firstProcess, firstMessage, secondProcess, secondMessage);
+
+        });
+
+    }
+
+    @Test
+    void shouldAnswerTheSameQueriesWithAttachedExactIndexes() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+        var indexed = new EventStore();
+        indexed.attach(new TimeIndex());
+
+        for (int i = 0; i < 3000; i++) {
+            // every tenth event is back-dated, so time blocks overlap
+            var occurredOn = i % 10 == 0 ? base.plusSeconds(i / 10) : base.plusSeconds(i);
+            Event event = i % 3 == 0 ? new ProcessEvent("command " + i, occurredOn) : new MessageEvent("message " + i, occurredOn);
+            eventStore.store(event);
+            indexed.store(event);
+        }
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(eventStore.between(base.plusSeconds(100), base.plusSeconds(1500)))
+                    .as("between() should return the same events with or without a TimeIndex")
+                    .hasSize(1460)
+                    .containsExactlyElementsOf(indexed.between(base.plusSeconds(100), base.plusSeconds(1500)));
+
+            softly.assertThat(eventStore.since(base.plusSeconds(2500)))
+                    .as("since() should return the same events with or without a TimeIndex")
+                    .containsExactlyElementsOf(indexed.since(base.plusSeconds(2500)));
+
+            softly.assertThat(eventStore.listAll(ProcessEvent.class))
+                    .as("listAll(type) should return every event of the type from the default TypeIndex")
+                    .hasSize(1000)
+                    .containsExactlyElementsOf(eventStore.stream().filter(ProcessEvent.class::isInstance).toList());
+
+        });
+
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.ConcurrencyConflictException;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import com.github.dearrudam.java_studies_oop.session_01.StreamLog;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog.Durability;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventStreamAppendTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRejectAppendsToAStreamAtAnotherVersion() {
+
+        try (EventStore eventStore = new EventStore()) {
+
+            long created = eventStore.append("order-1", 0, List.of(new MessageEvent("order created")));
+            eventStore.append("order-2", 0, List.of(new MessageEvent("order created")));
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(created)
+                        .as("append() should return the new version of the stream")
+                        .isEqualTo(1);
+
+                softly.assertThatThrownBy(() -> eventStore.append("order-1", 0, List.of(new MessageEvent("stale write"))))
+                        .as("append() should reject a stale expected version")
+                        .isInstanceOf(ConcurrencyConflictException.class)
+                        .hasMessage("stream order-1 is at version 1, expected 0");
+
+                softly.assertThat(eventStore.append("order-1", 1, List.of(new MessageEvent("order paid"))))
+                        .as("append() should accept the current version")
+                        .isEqualTo(2);
+
+                softly.assertThat(eventStore.readStream("order-1"))
+                        .as("readStream() should return only the events of the stream")
+                        .extracting(event -> ((MessageEvent) event).message())
+                        .containsExactly("order created", "order paid");
+
+                softly.assertThat(eventStore.streamVersion("unknown"))
+                        .as("streamVersion() should be 0 for unknown streams")
+                        .isZero();
+
+            });
+        }
+    }
+
+    @Test
+    void shouldKeepStreamsConsistentUnderConcurrentAppends() {
+
+        int threads = 8;
+        int appendsPerThread = 500;
+
+        try (EventStore eventStore = new EventStore()) {
+
+            try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+                for (int t = 0; t < threads; t++) {
+                    String streamId = "stream-" + (t % 2);
+                    executor.submit(() -> {
+                        for (int i = 0; i < appendsPerThread; i++) {
+                            while (true) {
+                                long version = eventStore.streamVersion(streamId);
+                                try {
+                                    eventStore.append(streamId, version, List.of(new MessageEvent(String.valueOf(version))));
+                                    break;
+                                } catch (ConcurrencyConflictException e) {
+                                    Thread.yield();
+                                }
+                            }
+                        }
+                    });
+                }
+            }
+
+            assertSoftly(softly -> {
+                for (String streamId : List.of("stream-0", "stream-1")) {
+
+                    softly.assertThat(eventStore.streamVersion(streamId))
+                            .as("streamVersion() should count every append of " + streamId)
+                            .isEqualTo(threads / 2 * appendsPerThread);
+
+                    softly.assertThat(eventStore.readStream(streamId))
+                            .as("each event of " + streamId + " should be written at the version it expected")
+                            .extracting(event -> Integer.parseInt(((MessageEvent) event).message()))
+                            .isSorted()
+                            .doesNotHaveDuplicates();
+                }
+            });
+        }
+    }
+
+    @Test
+    void shouldRebuildStreamsWhenReopeningADurableStore() {
+
+        var events = directory.resolve("events.wal");
+        var streams = directory.resolve("streams.wal");
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(events, Durability.NO_SYNC),
+                StreamLog.open(streams))) {
+            eventStore.append("order-1", 0, List.of(new MessageEvent("order created"), new MessageEvent("order paid")));
+            eventStore.store(new MessageEvent("outside any stream"));
+            eventStore.append("order 2", 0, List.of(new MessageEvent("order created")));
+            eventStore.append("order-1", 2, List.of(new MessageEvent("order shipped")));
+        }
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(events, Durability.NO_SYNC),
+                StreamLog.open(streams))) {
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.streamVersion("order-1"))
+                        .as("streamVersion() should be recovered from the stream log")
+                        .isEqualTo(3);
+
+                softly.assertThat(eventStore.readStream("order-1"))
+                        .as("readStream() should return the recovered events of the stream")
+                        .extracting(event -> ((MessageEvent) event).message())
+                        .containsExactly("order created", "order paid", "order shipped");
+
+                softly.assertThat(eventStore.readStream("order 2"))
+                        .as("readStream() should recover stream ids holding spaces")
+                        .extracting(event -> ((MessageEvent) event).message())
+                        .containsExactly("order created");
+
+                softly.assertThatThrownBy(() -> eventStore.append("order-1", 2, List.of(new MessageEvent("stale write"))))
+                        .as("append() should reject a version that was stale before reopening")
+                        .isInstanceOf(ConcurrencyConflictException.class);
+
+                softly.assertThat(eventStore.append("order-1", 3, List.of(new MessageEvent("order delivered"))))
+                        .as("append() should continue from the recovered version")
+                        .isEqualTo(4);
+
+            });
+        }
+    }
+
+    @Test
+    void shouldDropStreamRecordsOfEventsLostByTheEventLog() throws IOException {
+
+        var events = directory.resolve("events.wal");
+        var streams = directory.resolve("streams.wal");
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(events, Durability.NO_SYNC),
+                StreamLog.open(streams))) {
+            eventStore.append("order-1", 0, List.of(new MessageEvent("order created")));
+            eventStore.append("order-1", 1, List.of(new MessageEvent("order paid")));
+        }
+        try (var channel = FileChannel.open(events, StandardOpenOption.WRITE)) {
+            // a crash losing the last event, which the stream log had already recorded
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(events, Durability.NO_SYNC),
+                StreamLog.open(streams))) {
+
+            eventStore.store(new ProcessEvent("unrelated command"));
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.streamVersion("order-1"))
+                        .as("streamVersion() should not count the appends whose events were lost")
+                        .isEqualTo(1);
+
+                softly.assertThat(eventStore.readStream("order-1"))
+                        .as("readStream() should not return events stored after the lost ones")
+                        .extracting(event -> ((MessageEvent) event).message())
+                        .containsExactly("order created");
+
+            });
+        }
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(events, Durability.NO_SYNC),
+                StreamLog.open(streams))) {
+
+            assertSoftly(softly -> softly.assertThat(eventStore.streamVersion("order-1"))
+                    .as("the dropped stream records should stay dropped once the sequence is reused")
+                    .isEqualTo(1));
+        }
+    }
+
+}
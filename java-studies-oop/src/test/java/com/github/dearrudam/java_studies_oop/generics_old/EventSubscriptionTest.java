@@ -0,0 +1,110 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class EventSubscriptionTest {
+
+    EventStore eventStore;
+
+    @BeforeEach
+    void setup() {
+        eventStore = new EventStore();
+    }
+
+    @Test
+    void shouldReplayHistoryThenFollowLiveEventsHonouringDemand() {
+
+        var history = List.of(new MessageEvent("first"), new MessageEvent("second"), new MessageEvent("third"));
+        eventStore.storeAll(history);
+
+        var subscriber = new RecordingSubscriber(1);
+        // delivering on the calling thread, so the assertions below are deterministic
+        eventStore.subscribe(1, subscriber, Runnable::run);
+
+        var afterSubscribing = List.copyOf(subscriber.received);
+        var live = new MessageEvent("live");
+        eventStore.store(live);
+        var beforeRequestingMore = List.copyOf(subscriber.received);
+        subscriber.subscription.request(10);
+        var afterRequestingMore = List.copyOf(subscriber.received);
+        eventStore.close();
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(afterSubscribing)
+                    .as("only the requested amount of events should be delivered, starting at the given sequence")
+                    .containsExactly(history.get(1));
+
+            softly.assertThat(beforeRequestingMore)
+                    .as("live events should wait for demand")
+                    .containsExactly(history.get(1));
+
+            softly.assertThat(afterRequestingMore)
+                    .as("pending history and live events should be delivered once requested")
+                    .containsExactly(history.get(1), history.get(2), live);
+
+            softly.assertThat(subscriber.completed)
+                    .as("subscribers should be completed when the store is closed")
+                    .isTrue();
+
+        });
+    }
+
+    @Test
+    void shouldSignalErrorOnNonPositiveRequests() {
+
+        var subscriber = new RecordingSubscriber(0);
+        eventStore.subscribe(0, subscriber, Runnable::run);
+        subscriber.subscription.request(0);
+
+        assertSoftly(softly -> softly.assertThat(subscriber.error)
+                .isInstanceOf(IllegalArgumentException.class));
+    }
+
+    static class RecordingSubscriber implements Flow.Subscriber<Event> {
+
+        final List<Event> received = new ArrayList<>();
+        final long initialRequest;
+        Flow.Subscription subscription;
+        Throwable error;
+        boolean completed;
+
+        RecordingSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(Event item) {
+            received.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+    }
+
+}
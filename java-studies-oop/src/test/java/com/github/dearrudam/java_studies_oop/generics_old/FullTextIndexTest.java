@@ -0,0 +1,55 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.FullTextIndex;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class FullTextIndexTest {
+
+    @Test
+    void shouldFindMessagesByTermAndPhrase() {
+
+        try (var eventStore = new EventStore()) {
+
+            eventStore.store(new MessageEvent("Payment failed: card declined"));
+            var fullTextIndex = eventStore.attach(new FullTextIndex());
+            eventStore.store(new MessageEvent("user 42 signed in"));
+            eventStore.store(new ProcessEvent("payment failed"));
+            eventStore.store(new MessageEvent("order created, payment pending"));
+            eventStore.store(new MessageEvent("failed payment retried"));
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(FullTextIndex.tokenize("Payment FAILED: card-declined!"))
+                        .as("tokenize() should split on non alphanumeric characters and lower-case the terms")
+                        .containsExactly("payment", "failed", "card", "declined");
+
+                softly.assertThat(fullTextIndex.sequencesWithTerm("PAYMENT"))
+                        .as("sequencesWithTerm() should find every message holding the term, including the ones stored before attaching")
+                        .containsExactly(0L, 3L, 4L);
+
+                softly.assertThat(fullTextIndex.sequencesWithPhrase("payment failed"))
+                        .as("sequencesWithPhrase() should only find the terms next to each other and in order")
+                        .containsExactly(0L);
+
+                softly.assertThat(fullTextIndex.sequencesWithPhrase("failed payment"))
+                        .as("sequencesWithPhrase() should honour the order of the terms")
+                        .containsExactly(4L);
+
+                softly.assertThat(fullTextIndex.sequencesWithTerm("unknown"))
+                        .as("sequencesWithTerm() should find nothing for unknown terms")
+                        .isEmpty();
+
+                softly.assertThat(eventStore.read(fullTextIndex.sequencesWithTerm("42").findFirst().orElseThrow()))
+                        .as("the found sequences should be readable from the store")
+                        .isEqualTo(eventStore.listAll().get(1));
+
+            });
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MappedSegmentEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class MappedSegmentEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldKeepEventsAcrossRestartsAndRollSegments() throws Exception {
+
+        List<Event> expectedEventList = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            expectedEventList.add(i % 2 == 0
+                    ? new MessageEvent("message " + i)
+                    : new ProcessEvent("command --" + i));
+        }
+
+        try (EventStore eventStore = new EventStore(MappedSegmentEventLog.open(directory, 256))) {
+            expectedEventList.forEach(eventStore::store);
+        }
+
+        try (EventStore eventStore = new EventStore(MappedSegmentEventLog.open(directory, 256))) {
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.listAll())
+                        .as("listAll() should return the events stored before the restart")
+                        .containsExactlyElementsOf(expectedEventList);
+
+                softly.assertThat(eventStore.store(new MessageEvent("after restart")))
+                        .as("store() should continue the sequence of the recovered events")
+                        .isEqualTo(expectedEventList.size());
+
+            });
+        }
+
+        try (var segments = Files.list(directory)) {
+            assertThat(segments.count())
+                    .as("events should be spread over several fixed-size segments")
+                    .isGreaterThan(1);
+        }
+    }
+
+    @Test
+    void shouldScanEventsWithoutMaterializingThem() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+
+        try (var log = MappedSegmentEventLog.open(directory, 128)) {
+
+            for (int i = 0; i < 40; i++) {
+                log.append(new MessageEvent("message " + i, base.plusSeconds(i)));
+            }
+
+            List<Long> sequences = new ArrayList<>();
+            List<Event> materialized = new ArrayList<>();
+            log.scan(5, (sequence, event) -> {
+                if (event.occurredBetween(base.plusSeconds(10), base.plusSeconds(13))) {
+                    sequences.add(sequence);
+                    materialized.add(event.materialize());
+                }
+                return true;
+            });
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(sequences)
+                        .as("scan() should visit every event across segments from the given sequence")
+                        .containsExactly(10L, 11L, 12L);
+
+                softly.assertThat(materialized)
+                        .as("materialize() should return an event equal to the stored one")
+                        .containsExactly(log.read(10), log.read(11), log.read(12));
+
+            });
+        }
+    }
+
+}
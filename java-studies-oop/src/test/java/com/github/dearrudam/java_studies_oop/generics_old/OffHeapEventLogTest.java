@@ -0,0 +1,64 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.OffHeapEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class OffHeapEventLogTest {
+
+    @Test
+    void shouldStoreEventsOffHeap() {
+
+        var base = Instant.parse("2024-10-01T10:00:00Z");
+        List<Event> expectedEventList = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            expectedEventList.add(i % 2 == 0
+                    ? new MessageEvent("message " + i, base.plusSeconds(i))
+                    : new ProcessEvent("command --" + i, base.plusSeconds(i)));
+        }
+
+        var log = new OffHeapEventLog(256);
+        try (var eventStore = new EventStore(log)) {
+
+            eventStore.storeAll(expectedEventList);
+
+            List<Long> scanned = new ArrayList<>();
+            log.scan(90, (sequence, event) -> scanned.add(sequence));
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.listAll())
+                        .as("events read from off-heap memory should equal the stored ones")
+                        .containsExactlyElementsOf(expectedEventList);
+
+                softly.assertThat(eventStore.listAll(ProcessEvent.class))
+                        .as("typed reads should work on top of the off-heap log")
+                        .hasSize(50);
+
+                softly.assertThat(eventStore.between(base.plusSeconds(10), base.plusSeconds(20)))
+                        .as("time range reads should work on top of the off-heap log")
+                        .containsExactlyElementsOf(expectedEventList.subList(10, 20));
+
+                softly.assertThat(log.allocatedBytes())
+                        .as("events should be spread over several fixed-size chunks")
+                        .isGreaterThan(256);
+
+                softly.assertThat(scanned)
+                        .as("scan() should visit the events from the given sequence on")
+                        .hasSize(10)
+                        .startsWith(90L);
+
+            });
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.PartitionedEventStore;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class PartitionedEventStoreTest {
+
+    @Test
+    void shouldReadOnlyTheShardsOfTheRequestedType() {
+
+        var eventStore = PartitionedEventStore.byTypeAndKey(4, Object::toString);
+
+        var processEvents = List.of(
+                new ProcessEvent("deploy --service a"),
+                new ProcessEvent("deploy --service b"),
+                new ProcessEvent("restart --service c"));
+        var messageEvents = List.of(
+                new MessageEvent("hello"),
+                new MessageEvent("world"));
+
+        processEvents.forEach(eventStore::store);
+        messageEvents.forEach(eventStore::store);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(eventStore.listAll(ProcessEvent.class))
+                    .as("listAll(type) should return only the events of the given type")
+                    .containsExactlyInAnyOrderElementsOf(processEvents);
+
+            softly.assertThat(eventStore.listAll(MessageEvent.class))
+                    .as("listAll(type) should return only the events of the given type")
+                    .containsExactlyInAnyOrderElementsOf(messageEvents);
+
+            softly.assertThat(eventStore.listAll(Event.class))
+                    .as("listAll(Event.class) should return the events of every shard")
+                    .hasSize(processEvents.size() + messageEvents.size());
+
+            softly.assertThatThrownBy(() -> eventStore.store(null))
+                    .as("store() should not accept null event")
+                    .isInstanceOf(NullPointerException.class)
+                    .hasMessage("event is required");
+
+        });
+
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.RingBufferEventStore;
+import com.github.dearrudam.java_studies_oop.session_01.RingBufferEventStore.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class RingBufferEventStoreTest {
+
+    @Test
+    void shouldKeepTheMostRecentEventsWhenOverwritingTheOldest() {
+
+        var ringBuffer = new RingBufferEventStore(3, OverflowPolicy.OVERWRITE_OLDEST);
+        List<Event> events = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            events.add(new MessageEvent("message " + i));
+        }
+        List<Long> sequences = events.stream().map(ringBuffer::store).toList();
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(sequences)
+                    .as("store() should always accept the new event")
+                    .containsExactly(0L, 1L, 2L, 3L, 4L);
+
+            softly.assertThat(ringBuffer.snapshot())
+                    .as("snapshot() should return the last events, oldest first")
+                    .containsExactlyElementsOf(events.subList(2, 5));
+
+            softly.assertThat(ringBuffer.size())
+                    .as("size() should not exceed the capacity")
+                    .isEqualTo(3);
+
+        });
+    }
+
+    @Test
+    void shouldDropTheNewEventWhenFull() {
+
+        var ringBuffer = new RingBufferEventStore(2, OverflowPolicy.DROP_NEWEST);
+        var first = new MessageEvent("first");
+        var second = new MessageEvent("second");
+        ringBuffer.store(first);
+        ringBuffer.store(second);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(ringBuffer.store(new MessageEvent("third")))
+                    .as("store() should reject the new event when full")
+                    .isEqualTo(RingBufferEventStore.DROPPED);
+
+            softly.assertThat(ringBuffer.snapshot())
+                    .as("snapshot() should keep the events stored before overflowing")
+                    .containsExactly(first, second);
+
+            softly.assertThat(ringBuffer.poll())
+                    .as("poll() should remove the oldest event")
+                    .contains(first);
+
+            softly.assertThat(ringBuffer.store(new MessageEvent("fourth")))
+                    .as("store() should accept events again once there is room")
+                    .isEqualTo(2L);
+
+        });
+    }
+
+    @Test
+    void shouldBlockTheProducerUntilThereIsRoom() throws Exception {
+
+        var ringBuffer = new RingBufferEventStore(1, OverflowPolicy.BLOCK);
+        var first = new MessageEvent("first");
+        var second = new MessageEvent("second");
+        ringBuffer.store(first);
+
+        var blocked = new CompletableFuture<Long>();
+        var producer = Thread.ofPlatform().start(() -> blocked.complete(ringBuffer.store(second)));
+        boolean waitingWhileFull = waitsWithin(producer, Duration.ofSeconds(5));
+        boolean doneWhileFull = blocked.isDone();
+        var polled = ringBuffer.poll();
+        long sequence = blocked.get(5, TimeUnit.SECONDS);
+
+        assertSoftly(softly -> {
+
+            softly.assertThat(waitingWhileFull)
+                    .as("store() should park the producer while the ring buffer is full")
+                    .isTrue();
+
+            softly.assertThat(doneWhileFull)
+                    .as("store() should block while the ring buffer is full")
+                    .isFalse();
+
+            softly.assertThat(polled)
+                    .as("poll() should return the oldest event")
+                    .contains(first);
+
+            softly.assertThat(sequence)
+                    .as("the blocked store() should complete once poll() makes room")
+                    .isEqualTo(1L);
+
+            softly.assertThat(ringBuffer.snapshot())
+                    .as("snapshot() should contain the event stored by the unblocked producer")
+                    .containsExactly(second);
+
+        });
+    }
+
+    private static boolean waitsWithin(Thread thread, Duration timeout) {
+        // polling the thread state instead of sleeping, so the test only waits as long as needed
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (thread.getState() != Thread.State.WAITING) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Checkpoint;
+import com.github.dearrudam.java_studies_oop.session_01.CheckpointStore;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import com.github.dearrudam.java_studies_oop.session_01.Projection;
+import com.github.dearrudam.java_studies_oop.session_01.RunningProjection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class RunningProjectionTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldFoldStoredEventsIncrementally() {
+
+        Projection<Integer> messageCount = Projection.startingWith(0)
+                .when(MessageEvent.class, (count, event) -> count + 1);
+
+        try (EventStore eventStore = new EventStore()) {
+
+            eventStore.store(new MessageEvent("before start"));
+            eventStore.store(new ProcessEvent("ls -la"));
+
+            try (var running = RunningProjection.start(eventStore, messageCount, CheckpointStore.inMemory())) {
+
+                int afterReplay = running.state();
+
+                eventStore.store(new MessageEvent("after start"));
+                eventStore.store(new MessageEvent("another one"));
+
+                assertSoftly(softly -> {
+
+                    softly.assertThat(afterReplay)
+                            .as("start() should replay the events already stored")
+                            .isEqualTo(1);
+
+                    softly.assertThat(running.state())
+                            .as("state() should include the events stored after the start")
+                            .isEqualTo(3);
+
+                    softly.assertThat(running.lastSequence())
+                            .as("lastSequence() should be the sequence of the last stored event")
+                            .isEqualTo(3);
+
+                });
+            }
+        }
+    }
+
+    @Test
+    void shouldResumeFromTheLastCheckpoint() {
+
+        AtomicInteger applied = new AtomicInteger();
+        Projection<String> commands = Projection.startingWith("")
+                .when(ProcessEvent.class, (state, event) -> {
+                    applied.incrementAndGet();
+                    return state + event.command() + ";";
+                });
+        CheckpointStore<String> checkpoints = CheckpointStore.file(directory.resolve("commands.checkpoint"),
+                state -> state, state -> state);
+
+        try (EventStore eventStore = new EventStore()) {
+
+            eventStore.store(new ProcessEvent("ls"));
+            try (var running = RunningProjection.start(eventStore, commands, checkpoints, 1)) {
+                eventStore.store(new ProcessEvent("pwd"));
+            }
+
+            applied.set(0);
+            eventStore.store(new ProcessEvent("whoami"));
+
+            try (var resumed = RunningProjection.start(eventStore, commands, checkpoints)) {
+
+                assertSoftly(softly -> {
+
+                    softly.assertThat(resumed.state())
+                            .as("start() should continue from the saved state")
+                            .isEqualTo("ls;pwd;whoami;");
+
+                    softly.assertThat(applied.get())
+                            .as("start() should only replay the events stored after the checkpoint")
+                            .isEqualTo(1);
+
+                    softly.assertThat(checkpoints.load())
+                            .as("load() should return the sequence saved on close")
+                            .hasValueSatisfying(checkpoint -> softly.assertThat(checkpoint.sequence()).isEqualTo(1));
+
+                });
+            }
+        }
+    }
+
+    @Test
+    void shouldReportCheckpointsThatCouldNotBeSaved() {
+
+        Projection<Integer> messageCount = Projection.startingWith(0)
+                .when(MessageEvent.class, (count, event) -> count + 1);
+        AtomicInteger saves = new AtomicInteger();
+        CheckpointStore<Integer> failingOnce = new CheckpointStore<>() {
+
+            @Override
+            public Optional<Checkpoint<Integer>> load() {
+                return Optional.empty();
+            }
+
+            @Override
+            public void save(Checkpoint<Integer> checkpoint) {
+                if (saves.getAndIncrement() == 0) {
+                    throw new UncheckedIOException(new IOException("disk full"));
+                }
+            }
+        };
+
+        try (EventStore eventStore = new EventStore()) {
+
+            var running = RunningProjection.start(eventStore, messageCount, failingOnce, 1);
+            eventStore.store(new MessageEvent("checkpointed in the background"));
+
+            assertSoftly(softly -> softly.assertThatThrownBy(running::close)
+                    .as("close() should report the checkpoint that the saver thread could not save")
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("checkpoint saving failed")
+                    .hasRootCauseMessage("disk full"));
+        }
+    }
+
+}
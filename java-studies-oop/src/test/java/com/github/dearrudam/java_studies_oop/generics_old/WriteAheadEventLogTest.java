@@ -0,0 +1,134 @@
+package com.github.dearrudam.java_studies_oop.generics_old;
+
+import com.github.dearrudam.java_studies_oop.session_01.Event;
+import com.github.dearrudam.java_studies_oop.session_01.EventStore;
+import com.github.dearrudam.java_studies_oop.session_01.MessageEvent;
+import com.github.dearrudam.java_studies_oop.session_01.ProcessEvent;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog;
+import com.github.dearrudam.java_studies_oop.session_01.WriteAheadEventLog.Durability;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.SoftAssertions.assertSoftly;
+
+class WriteAheadEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @EnumSource(Durability.class)
+    void shouldRecoverEventsAndTruncateTornTails(Durability durability) throws IOException {
+
+        var file = directory.resolve("events.wal");
+        var expectedEventList = List.of(
+                new ProcessEvent("first command"),
+                new MessageEvent("second message"),
+                new ProcessEvent("third command"));
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(file, durability))) {
+            eventStore.store(expectedEventList.get(0));
+            eventStore.storeAll(expectedEventList.subList(1, 3));
+        }
+        long validSize = Files.size(file);
+
+        // simulating a crash in the middle of a write: a header announcing a payload that never made it
+        Files.write(file, new byte[]{0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(file, durability))) {
+
+            assertSoftly(softly -> {
+
+                softly.assertThat(eventStore.listAll())
+                        .as("every complete record should be recovered")
+                        .containsExactlyElementsOf(expectedEventList);
+
+                softly.assertThat(file)
+                        .as("the torn tail should be truncated")
+                        .hasSize(validSize);
+
+            });
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(Durability.class)
+    void shouldDropRecordsWithInvalidChecksum(Durability durability) throws IOException {
+
+        var file = directory.resolve("events.wal");
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(file, durability))) {
+            eventStore.store(new MessageEvent("kept"));
+            eventStore.store(new MessageEvent("corrupted"));
+        }
+
+        byte[] content = Files.readAllBytes(file);
+        content[content.length - 1] ^= 1;
+        Files.write(file, content);
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(file, durability))) {
+
+            eventStore.store(new MessageEvent("after recovery"));
+
+            assertSoftly(softly -> softly.assertThat(eventStore.listAll())
+                    .as("a record failing its checksum should be dropped with everything after it")
+                    .extracting("message")
+                    .containsExactly("kept", "after recovery"));
+        }
+    }
+
+    @Test
+    void shouldCloseWhilePeriodicSyncIsRunning() {
+
+        var file = directory.resolve("events.wal");
+
+        for (int i = 0; i < 50; i++) {
+            // a sync interval this short keeps the sync thread forcing the file while closing
+            try (var log = WriteAheadEventLog.open(file, Durability.PERIODIC, Duration.ofNanos(1))) {
+                log.append(new MessageEvent("message " + i));
+            }
+        }
+
+        try (var eventStore = new EventStore(WriteAheadEventLog.open(file, Durability.NO_SYNC))) {
+            assertSoftly(softly -> softly.assertThat(eventStore.listAll())
+                    .as("close() should wait for the periodic sync and keep every event")
+                    .hasSize(50));
+        }
+    }
+
+    @Test
+    void shouldScanRecordsStraightFromTheFile() {
+
+        var file = directory.resolve("events.wal");
+        var expectedEventList = List.of(
+                new ProcessEvent("first command"),
+                // larger than the scan buffer
+                new MessageEvent("x".repeat(100_000)),
+                new ProcessEvent("third command"));
+
+        try (var log = WriteAheadEventLog.open(file, Durability.NO_SYNC)) {
+            log.appendAll(expectedEventList);
+        }
+
+        try (var log = WriteAheadEventLog.open(file, Durability.NO_SYNC)) {
+
+            List<Event> scanned = new ArrayList<>();
+            log.scan(1, (sequence, event) -> scanned.add(event.materialize()));
+
+            assertSoftly(softly -> softly.assertThat(scanned)
+                    .as("scan() should visit the recovered records from the given sequence on")
+                    .containsExactlyElementsOf(expectedEventList.subList(1, 3)));
+        }
+    }
+
+}